@@ -0,0 +1,201 @@
+package ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI批量筛选
+ * 同一关键词下的岗位凑够 batchSize 个（或等待超过 MAX_WAIT_MILLIS）后合并成一次请求，
+ * 自我介绍只发送一次，要求AI返回 [{id, match, greeting}] 形式的JSON数组；
+ * 整批请求失败、返回内容无法解析或缺少某个岗位时，对应岗位改为逐个请求。
+ */
+@Slf4j
+public class AiBatchScreener {
+
+    /**
+     * 批次最长等待时间，避免岗位不足一批时一直不发送
+     */
+    public static final long MAX_WAIT_MILLIS = 3000;
+
+    /**
+     * 单个岗位的筛选请求，用于批量失败时回退
+     */
+    @FunctionalInterface
+    public interface SingleScreen {
+        CompletableFuture<AiFilter> screen(String keyword, String jobName, String jd);
+    }
+
+    private static class Item {
+        final String id;
+        final String jobName;
+        final String jd;
+        final CompletableFuture<AiFilter> future = new CompletableFuture<>();
+
+        Item(String id, String jobName, String jd) {
+            this.id = id;
+            this.jobName = jobName;
+            this.jd = jd;
+        }
+    }
+
+    private final int batchSize;
+    private final AiPrompts prompts;
+    private final int jdTokenBudget;
+    private final SingleScreen single;
+    private final Map<String, List<Item>> pending = new HashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ai-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int nextId = 1;
+    private int batches = 0;
+    private int items = 0;
+    private int fallbacks = 0;
+
+    public AiBatchScreener(AiConfig aiConfig, AiPrompts prompts, SingleScreen single) {
+        this.batchSize = aiConfig.getBatchSize();
+        this.prompts = prompts;
+        this.jdTokenBudget = aiConfig.getJdTokenBudget();
+        this.single = single;
+    }
+
+    /**
+     * 加入批次，批次凑满时立即发送
+     */
+    public synchronized CompletableFuture<AiFilter> submit(String keyword, String jobName, String jd) {
+        Item item = new Item(String.valueOf(nextId++), jobName, jd);
+        List<Item> batch = pending.computeIfAbsent(keyword, k -> new ArrayList<>());
+        batch.add(item);
+        if (batch.size() == 1) {
+            timer.schedule(() -> flush(keyword, batch), MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        if (batch.size() >= batchSize) {
+            flush(keyword, batch);
+        }
+        return item.future;
+    }
+
+    /**
+     * 立即发送所有未满的批次
+     */
+    public synchronized void flush() {
+        for (Map.Entry<String, List<Item>> entry : new ArrayList<>(pending.entrySet())) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private synchronized void flush(String keyword, List<Item> batch) {
+        // 定时器触发时该批次可能已经因凑满而发送
+        if (pending.get(keyword) != batch) {
+            return;
+        }
+        pending.remove(keyword);
+        batches++;
+        items += batch.size();
+        if (batch.size() == 1) {
+            Item item = batch.get(0);
+            fallback(keyword, item);
+            return;
+        }
+        AiService.sendRequestAsync(buildPrompt(keyword, batch)).whenComplete((content, e) -> {
+            if (e != null) {
+                // 请求本身抛出异常（如接口地址配置错误）时逐个重试，每个岗位的结果都必须完成，否则投递流程会一直等待
+                log.warn("批量AI筛选请求异常，改为逐个请求: {}", e.getMessage());
+                complete(keyword, batch, "");
+            } else {
+                complete(keyword, batch, content);
+            }
+        });
+    }
+
+    private AiMessages buildPrompt(String keyword, List<Item> batch) {
+        StringBuilder jobs = new StringBuilder();
+        for (Item item : batch) {
+            jobs.append("id: ").append(item.id).append('\n')
+                    .append("岗位名称：").append(item.jobName).append('\n')
+                    .append("岗位要求：").append(AiPromptBuilder.fitJd(item.jd, jdTokenBudget)).append("\n\n");
+        }
+        return prompts.batch(keyword, batch.size(), jobs.toString());
+    }
+
+    private void complete(String keyword, List<Item> batch, String content) {
+        Map<String, AiFilter> verdicts = parseVerdicts(content);
+        for (Item item : batch) {
+            AiFilter verdict = verdicts.get(item.id);
+            if (verdict != null) {
+                item.future.complete(verdict);
+            } else {
+                synchronized (this) {
+                    fallbacks++;
+                }
+                fallback(keyword, item);
+            }
+        }
+    }
+
+    private void fallback(String keyword, Item item) {
+        CompletableFuture<AiFilter> verdict;
+        try {
+            verdict = single.screen(keyword, item.jobName, item.jd);
+        } catch (RuntimeException e) {
+            item.future.completeExceptionally(e);
+            return;
+        }
+        verdict.whenComplete((result, e) -> {
+            if (e != null) {
+                item.future.completeExceptionally(e);
+            } else {
+                item.future.complete(result);
+            }
+        });
+    }
+
+    /**
+     * 解析AI返回的JSON数组，兼容 ```json 代码块及前后多余文字；无法解析时返回空Map
+     */
+    static Map<String, AiFilter> parseVerdicts(String content) {
+        Map<String, AiFilter> verdicts = new HashMap<>();
+        if (content == null) {
+            return verdicts;
+        }
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return verdicts;
+        }
+        try {
+            JSONArray array = new JSONArray(content.substring(start, end + 1));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject row = array.optJSONObject(i);
+                if (row == null || !row.has("id") || !row.has("match")) {
+                    continue;
+                }
+                String id = String.valueOf(row.get("id"));
+                boolean match = row.optBoolean("match", false);
+                verdicts.put(id, match ? new AiFilter(true, row.optString("greeting", "")) : new AiFilter(false));
+            }
+        } catch (Exception e) {
+            log.warn("AI批量筛选结果解析失败，改为逐个请求: {}", e.getMessage());
+            verdicts.clear();
+        }
+        return verdicts;
+    }
+
+    public synchronized void logSummary() {
+        if (items == 0) {
+            return;
+        }
+        log.info("AI批量筛选：岗位{}个，请求{}次（每批最多{}个），回退逐个请求{}个", items, batches, batchSize, fallbacks);
+    }
+}
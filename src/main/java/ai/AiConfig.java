@@ -10,16 +10,120 @@ import utils.JobUtils;
 @Data
 public class AiConfig {
 
+    /**
+     * 默认系统提示词，参数依次为：介绍语、默认招呼语；每个岗位都相同，作为请求的固定前缀
+     */
+    public static final String DEFAULT_SYSTEM_PROMPT = "我目前在找工作,%s。我会告诉你我期望的岗位方向、需要投递的岗位名称和岗位要求，" +
+            "如果这个岗位和我的期望与经历基本符合，注意是基本符合，那么请帮我写一个给HR打招呼的文本发给我，" +
+            "如果这个岗位和我的期望经历完全不相干，直接返回false给我，注意只要返回我需要的内容即可，不要有其他的语气助词，" +
+            "重点要突出我和岗位的匹配度以及我的优势，我自己写的招呼语是：【%s】,你可以参照我自己写的根据岗位情况进行适当调整";
+
+    /**
+     * 默认用户提示词，参数依次为：期望岗位方向、岗位名称、岗位要求
+     */
+    public static final String DEFAULT_USER_PROMPT = "我期望的的岗位方向是【%s】,目前我需要投递的岗位名称是【%s】,这个岗位的要求是【%s】";
+
+    /**
+     * 默认批量筛选系统提示词，参数依次为：介绍语、默认招呼语
+     */
+    public static final String DEFAULT_BATCH_SYSTEM_PROMPT = "我目前在找工作,%s。我会一次发给你多个岗位，每个岗位用id标识，" +
+            "请逐个判断岗位是否和我的期望与经历基本符合，注意是基本符合：符合则为该岗位写一个给HR打招呼的文本，重点要突出我和岗位的匹配度以及我的优势，" +
+            "我自己写的招呼语是：【%s】，你可以参照它根据岗位情况进行适当调整；完全不相干则判定为不符合。" +
+            "只返回一个JSON数组，不要有其他内容，格式为：[{\"id\":\"岗位id\",\"match\":true,\"greeting\":\"打招呼语\"}]，" +
+            "不符合时match为false、greeting为空字符串。";
+
+    /**
+     * 默认批量筛选用户提示词，参数依次为：期望岗位方向、岗位数量、岗位列表
+     */
+    public static final String DEFAULT_BATCH_USER_PROMPT = "我期望的的岗位方向是【%s】。下面有%d个岗位，岗位列表如下：\n%s";
+
+    private static volatile AiConfig instance;
+
     /**
      * 介绍语
      */
     private String introduce;
 
     /**
-     * 提示词
+     * 旧版单条提示词（介绍语、期望岗位方向、岗位名称、岗位要求、默认招呼语），未配置 systemPrompt 时兼容使用
      */
     private String prompt;
 
+    /**
+     * 系统提示词（介绍语、默认招呼语），为空时使用默认提示词
+     */
+    private String systemPrompt;
+
+    /**
+     * 用户提示词（期望岗位方向、岗位名称、岗位要求），为空时使用默认提示词
+     */
+    private String userPrompt;
+
+    /**
+     * AI筛选结果缓存天数
+     */
+    private Integer cacheDays;
+
+    /**
+     * AI筛选结果缓存最大条数
+     */
+    private Integer cacheMaxEntries;
+
+    /**
+     * 批量筛选时每次请求包含的岗位数量，1 为逐个请求
+     */
+    private Integer batchSize;
+
+    /**
+     * 旧版批量筛选提示词（介绍语、期望岗位方向、岗位数量、默认招呼语、岗位列表），为空时使用默认的系统/用户提示词
+     */
+    private String batchPrompt;
+
+    /**
+     * 本地相关度预筛：低于该分数（0~1）直接判定不匹配，不请求AI；0 为不启用
+     */
+    private Double prescreenRejectBelow;
+
+    /**
+     * 本地相关度预筛：高于该分数（0~1）直接判定匹配并使用默认招呼语，不请求AI；1 为不启用
+     */
+    private Double prescreenAcceptAbove;
+
+    /**
+     * 是否以流式方式请求AI，返回 false 时提前结束请求
+     */
+    private Boolean stream;
+
+    /**
+     * 每分钟最多请求AI的次数
+     */
+    private Integer requestsPerMinute;
+
+    /**
+     * 最多同时进行的AI请求数
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * 429、5xx或网络异常时的最大重试次数
+     */
+    private Integer maxRetries;
+
+    /**
+     * 每日 token 额度（提示词+补全），0 为不限制
+     */
+    private Long dailyTokenBudget;
+
+    /**
+     * 额度用尽或重试后仍失败、未能筛选的岗位是否按默认招呼语投递，默认跳过
+     */
+    private Boolean submitUnscreened;
+
+    /**
+     * 单个岗位描述放入提示词的 token 上限，超出时优先保留任职要求；0 为不裁剪
+     */
+    private Integer jdTokenBudget;
+
     public AiConfig() {
     }
 
@@ -28,9 +132,42 @@ public class AiConfig {
         this.prompt = prompt;
     }
 
+    /**
+     * 进程内只读取一次配置文件，之后直接返回同一份配置
+     */
+    public static AiConfig get() {
+        AiConfig config = instance;
+        if (config == null) {
+            synchronized (AiConfig.class) {
+                config = instance;
+                if (config == null) {
+                    config = init();
+                    instance = config;
+                }
+            }
+        }
+        return config;
+    }
+
     public static AiConfig init() {
         AiConfig config = JobUtils.getConfig(AiConfig.class);
-        return new AiConfig(config.introduce, config.prompt);
+        AiConfig aiConfig = new AiConfig(config.introduce, config.prompt);
+        aiConfig.setCacheDays(config.cacheDays == null || config.cacheDays <= 0 ? 7 : config.cacheDays);
+        aiConfig.setCacheMaxEntries(config.cacheMaxEntries == null || config.cacheMaxEntries <= 0 ? 5000 : config.cacheMaxEntries);
+        aiConfig.setBatchSize(config.batchSize == null || config.batchSize <= 0 ? 1 : config.batchSize);
+        aiConfig.setSystemPrompt(config.systemPrompt);
+        aiConfig.setUserPrompt(config.userPrompt);
+        aiConfig.setBatchPrompt(config.batchPrompt);
+        aiConfig.setPrescreenRejectBelow(config.prescreenRejectBelow == null ? 0 : config.prescreenRejectBelow);
+        aiConfig.setPrescreenAcceptAbove(config.prescreenAcceptAbove == null ? 1 : config.prescreenAcceptAbove);
+        aiConfig.setStream(Boolean.TRUE.equals(config.stream));
+        aiConfig.setRequestsPerMinute(config.requestsPerMinute == null || config.requestsPerMinute <= 0 ? 60 : config.requestsPerMinute);
+        aiConfig.setMaxConcurrency(config.maxConcurrency == null || config.maxConcurrency <= 0 ? 4 : config.maxConcurrency);
+        aiConfig.setMaxRetries(config.maxRetries == null || config.maxRetries < 0 ? 3 : config.maxRetries);
+        aiConfig.setDailyTokenBudget(config.dailyTokenBudget == null || config.dailyTokenBudget < 0 ? 0 : config.dailyTokenBudget);
+        aiConfig.setSubmitUnscreened(Boolean.TRUE.equals(config.submitUnscreened));
+        aiConfig.setJdTokenBudget(config.jdTokenBudget == null || config.jdTokenBudget < 0 ? 1000 : config.jdTokenBudget);
+        return aiConfig;
     }
 
 }
@@ -19,6 +19,11 @@ public class AiFilter {
      */
     private String message;
 
+    /**
+     * 是否经过筛选，额度用尽或请求失败时为 false，此时 result 由 submitUnscreened 配置决定
+     */
+    private boolean screened = true;
+
     public AiFilter(Boolean result) {
         this.result = result;
     }
@@ -28,4 +33,13 @@ public class AiFilter {
         this.message = message;
     }
 
+    /**
+     * 未能筛选的岗位，不写入缓存，下次重新判断
+     */
+    public static AiFilter unscreened(boolean submit) {
+        AiFilter filter = new AiFilter(submit);
+        filter.screened = false;
+        return filter;
+    }
+
 }
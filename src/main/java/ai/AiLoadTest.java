@@ -0,0 +1,98 @@
+package ai;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AiService 本地压测
+ * 启动 {@link AiStubServer}，通过系统属性把 BASE_URL 指向本机，按指定并发量持续发送请求，
+ * 输出延迟分位数（p50/p95/p99）、吞吐量、重试和失败次数。全程离线，不需要 .env。
+ * <p>
+ * 参数（均可省略）：请求数 并发数 是否流式 延迟毫秒 500错误率 429比例 每分钟请求上限 AI最大并发
+ * 例如：500 32 true 300 0.02 0.05 100000 32
+ */
+public class AiLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int total = intArg(args, 0, 500);
+        int concurrency = intArg(args, 1, 32);
+        boolean stream = args.length > 2 && Boolean.parseBoolean(args[2]);
+        AiStubServer.Options options = new AiStubServer.Options();
+        options.setLatencyMillis(intArg(args, 3, 300));
+        options.setErrorRate(args.length > 4 ? Double.parseDouble(args[4]) : 0.02);
+        options.setRateLimitRate(args.length > 5 ? Double.parseDouble(args[5]) : 0.05);
+        int requestsPerMinute = intArg(args, 6, 100_000);
+        int maxConcurrency = intArg(args, 7, concurrency);
+
+        Path usageFile = Files.createTempFile("ai-usage", ".json");
+        try (AiStubServer stub = new AiStubServer(options)) {
+            // 必须在 AiService 初始化之前设置，AiService 在首次使用时读取
+            System.setProperty("BASE_URL", stub.baseUrl());
+            System.setProperty("API_KEY", "stub");
+            System.setProperty("MODEL", "stub");
+            System.setProperty("AI_USAGE_PATH", usageFile.toString());
+            AiConfig aiConfig = AiConfig.get();
+            aiConfig.setRequestsPerMinute(requestsPerMinute);
+            aiConfig.setMaxConcurrency(maxConcurrency);
+            AiPrompts prompts = AiPrompts.compile(aiConfig, "您好，对贵司岗位很感兴趣，期待沟通");
+
+            System.out.printf("压测：%d个请求，并发%d，%s，桩服务延迟%dms，500错误率%.0f%%，429比例%.0f%%，限流%d次/分钟、最多%d个同时请求%n",
+                    total, concurrency, stream ? "流式" : "非流式", options.getLatencyMillis(), options.getErrorRate() * 100,
+                    options.getRateLimitRate() * 100, requestsPerMinute, maxConcurrency);
+
+            long[] latencies = new long[total];
+            AtomicInteger empty = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            Semaphore outstanding = new Semaphore(concurrency);
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[total];
+            long start = System.nanoTime();
+            for (int i = 0; i < total; i++) {
+                outstanding.acquire();
+                int index = i;
+                AiMessages messages = prompts.single("Java", "Java开发工程师" + i,
+                        "任职要求：5年以上Java开发经验，熟悉Spring Cloud、MySQL、Redis、Kafka，有高并发系统设计经验。");
+                long sent = System.nanoTime();
+                CompletableFuture<String> future = stream
+                        ? AiService.sendStreamRequestAsync(messages, (delta, text) -> !text.startsWith("false"))
+                        : AiService.sendRequestAsync(messages);
+                futures[i] = future.whenComplete((result, e) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (result == null || result.isEmpty()) {
+                        empty.incrementAndGet();
+                    } else if (result.startsWith("false")) {
+                        rejected.incrementAndGet();
+                    }
+                    outstanding.release();
+                });
+            }
+            CompletableFuture.allOf(futures).join();
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            AiUsage usage = AiService.usage();
+            System.out.printf("耗时%.2fs，吞吐%.1f次/秒%n", elapsed / 1e9, total / (elapsed / 1e9));
+            System.out.printf("延迟：p50=%dms p95=%dms p99=%dms max=%dms%n", percentile(latencies, 50),
+                    percentile(latencies, 95), percentile(latencies, 99), latencies[total - 1] / 1_000_000);
+            System.out.printf("结果：不匹配%d，失败（空结果）%d；客户端发出%d次请求，重试%d次，最终失败%d次；桩服务收到%d次，返回500共%d次，429共%d次%n",
+                    rejected.get(), empty.get(), usage.requests(), usage.retries(), usage.failures(),
+                    stub.requests(), stub.errors(), stub.rateLimited());
+            AiService.logSummary();
+        } finally {
+            Files.deleteIfExists(usageFile);
+        }
+        System.exit(0);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000;
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
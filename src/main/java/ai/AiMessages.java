@@ -0,0 +1,10 @@
+package ai;
+
+/**
+ * 一次AI请求的消息
+ *
+ * @param system 系统消息：固定的自我介绍与判定规则，每个岗位都相同，便于服务商缓存前缀；为 null 时只发送用户消息
+ * @param user   用户消息：本次岗位的内容
+ */
+public record AiMessages(String system, String user) {
+}
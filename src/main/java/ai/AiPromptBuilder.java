@@ -0,0 +1,211 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 按 token 预算裁剪岗位描述
+ * 先用 {@link JdNormalizer} 规范化，再按小节标题（任职要求、岗位职责、福利待遇……）切分，
+ * 按"任职要求 > 岗位职责 > 其他 > 福利/公司介绍"的优先级分配预算，放不下的小节在句子边界截断，
+ * 最后按原文顺序拼回。token 数按"一个汉字约 1 个 token、英文约 4 个字符 1 个 token"估算。
+ */
+public class AiPromptBuilder {
+
+    /**
+     * 小节标题及优先级，数字越小越先保留
+     */
+    private static final String[][] SECTION_HEADERS = {
+            {"任职要求", "0"}, {"任职资格", "0"}, {"岗位要求", "0"}, {"职位要求", "0"}, {"技能要求", "0"}, {"任职条件", "0"},
+            {"岗位职责", "1"}, {"工作职责", "1"}, {"职位描述", "1"}, {"工作内容", "1"}, {"岗位描述", "1"},
+            {"加分项", "2"}, {"优先条件", "2"},
+            {"福利待遇", "3"}, {"薪资福利", "3"}, {"公司福利", "3"}, {"公司介绍", "3"}, {"关于我们", "3"}, {"工作时间", "3"}, {"工作地点", "3"},
+    };
+    private static final int DEFAULT_PRIORITY = 2;
+    private static final Pattern SENTENCE_END = Pattern.compile("[。；;！!？?]");
+    private static final String ELLIPSIS = "…";
+
+    private record Section(int start, int end, int priority) {
+    }
+
+    private AiPromptBuilder() {
+    }
+
+    /**
+     * 规范化JD并裁剪到 tokenBudget 以内，tokenBudget ≤ 0 时只做规范化
+     */
+    public static String fitJd(String jd, int tokenBudget) {
+        String text = JdNormalizer.normalize(jd);
+        if (tokenBudget <= 0 || estimateTokens(text) <= tokenBudget) {
+            return text;
+        }
+        List<Section> sections = split(text);
+        String[] kept = new String[sections.size()];
+        int remaining = tokenBudget;
+        for (int priority = 0; priority <= 3 && remaining > 0; priority++) {
+            for (int i = 0; i < sections.size() && remaining > 0; i++) {
+                Section section = sections.get(i);
+                if (section.priority() != priority) {
+                    continue;
+                }
+                String part = text.substring(section.start(), section.end());
+                int tokens = estimateTokens(part);
+                if (tokens <= remaining) {
+                    kept[i] = part;
+                    remaining -= tokens;
+                } else {
+                    kept[i] = truncate(part, remaining);
+                    remaining = 0;
+                }
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (String part : kept) {
+            if (part != null && !part.isEmpty()) {
+                if (!result.isEmpty()) {
+                    result.append(' ');
+                }
+                result.append(part.trim());
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * 估算 token 数：汉字及全角字符按 1 个，其余非空白字符按 4 个 1 个
+     */
+    public static int estimateTokens(CharSequence text) {
+        int wide = 0;
+        int narrow = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128) {
+                wide++;
+            } else if (!Character.isWhitespace(c)) {
+                narrow++;
+            }
+        }
+        return wide + (narrow + 3) / 4;
+    }
+
+    /**
+     * 按小节标题切分，标题前的内容作为默认优先级的一节
+     */
+    private static List<Section> split(String text) {
+        List<int[]> headers = new ArrayList<>();
+        for (String[] header : SECTION_HEADERS) {
+            int from = 0;
+            int index;
+            while ((index = text.indexOf(header[0], from)) >= 0) {
+                headers.add(new int[]{index, Integer.parseInt(header[1])});
+                from = index + header[0].length();
+            }
+        }
+        headers.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<Section> sections = new ArrayList<>();
+        int start = 0;
+        int priority = DEFAULT_PRIORITY;
+        for (int[] header : headers) {
+            if (header[0] > start) {
+                sections.add(new Section(start, header[0], priority));
+            }
+            start = header[0];
+            priority = header[1];
+        }
+        sections.add(new Section(start, text.length(), priority));
+        return sections;
+    }
+
+    /**
+     * 截断到 budget 以内，尽量停在句子末尾
+     */
+    private static String truncate(String part, int budget) {
+        int tokens = 0;
+        int cut = 0;
+        int narrow = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c >= 128) {
+                tokens++;
+            } else if (!Character.isWhitespace(c) && ++narrow % 4 == 1) {
+                tokens++;
+            }
+            if (tokens > budget - 1) {
+                break;
+            }
+            cut = i + 1;
+        }
+        String head = part.substring(0, cut);
+        int sentenceEnd = -1;
+        var matcher = SENTENCE_END.matcher(head);
+        while (matcher.find()) {
+            sentenceEnd = matcher.end();
+        }
+        // 句子边界太靠前时直接按长度截断，避免丢掉大半预算
+        if (sentenceEnd > cut / 2) {
+            head = head.substring(0, sentenceEnd);
+        }
+        return head.isEmpty() ? "" : head + ELLIPSIS;
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int budget = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+        String jd = ".EwyXFHpFfseN{display:inline-block;width:0.1px;height:0.1px;overflow:hidden;visibility: hidden;}"
+                + ".FxpRjMznwNS{display:inline-block;font-size:0!important;width:1em;height:1em;visibility:hidden;line-height:0;}"
+                + ".snNcSPFFs{font-style:normal;font-weight:normal}.zjziXGAdnjK{font-style:normal;font-weight:normal}"
+                + "岗位职责：\nkanzhun1、负责公司核心业务系统的设计与开发，参与需求分析、技术方案评审；\n"
+                + "2、负责高并发BOSS直聘场景下的性能优化，保证系统稳定性；\n3、编写技术文档，参与代码评审，指导初级工程师。\n"
+                + "任职要求：\n1、本科及以上学历，计算机相关专业，5年以上Java开发经验；\n"
+                + "2、精通Java并发、JVM调优，熟悉Spring Boot、Spring Cloud等框架；\u200b\n"
+                + "3、熟悉MySQL、Redis、Kafka、Elasticsearch，有分布式系统设计经验；\n4、良好的沟通能力和团队协作精神。\n"
+                + "加分项：有大模型应用开发经验，熟悉RAG、Agent框架者优先。\n"
+                + "福利待遇：五险一金、带薪年假、年度体检、节日福利、弹性工作、免费三餐、下午茶、团建旅游、股票期权、年终奖金。\n"
+                + "公司介绍：我们是一家专注于企业服务的科技公司，成立于2015年，已完成C轮融资，员工500余人，"
+                + "业务覆盖全国30多个城市，服务客户超过一万家，致力于用技术提升企业效率。来自BOSS直聘";
+
+        String fitted = fitJd(jd, budget);
+        System.out.println("规范化: " + JdNormalizer.normalize(jd));
+        System.out.println("裁剪后: " + fitted);
+        System.out.printf("token估算: 原文%d -> 规范化%d -> 裁剪后%d（预算%d）%n", estimateTokens(jd),
+                estimateTokens(JdNormalizer.normalize(jd)), estimateTokens(fitted), budget);
+
+        long sink = 0;
+        long legacyNanos = 0;
+        long normalizerNanos = 0;
+        long fitNanos = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                sink += legacyClean(jd).length();
+            }
+            legacyNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                sink += JdNormalizer.normalize(jd).length();
+            }
+            normalizerNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                sink += fitJd(jd, budget).length();
+            }
+            fitNanos = System.nanoTime() - start;
+        }
+        System.out.printf("旧cleanBossDesc: %.0fns/次, JdNormalizer: %.0fns/次（%.1fx）, 规范化+裁剪: %.0fns/次 (sink=%d)%n",
+                (double) legacyNanos / rounds, (double) normalizerNanos / rounds, (double) legacyNanos / normalizerNanos,
+                (double) fitNanos / rounds, sink);
+    }
+
+    /**
+     * 旧 cleanBossDesc 的实现，仅用于基准对比
+     */
+    private static String legacyClean(String raw) {
+        return raw.replaceAll("kanzhun|BOSS直聘|来自BOSS直聘", "")
+                .replaceAll("[\\u200b-\\u200d\\uFEFF]", "")
+                .replaceAll("<[^>]+>", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
@@ -0,0 +1,90 @@
+package ai;
+
+/**
+ * 进程内编译一次的AI提示词
+ * 自我介绍、判定规则和默认招呼语放在系统消息里，启动时渲染好，每个岗位完全相同，服务商的前缀缓存（prompt caching）可以命中；
+ * 每个岗位只渲染一条很短的用户消息（岗位方向、岗位名称、JD）。
+ * 配置了旧版单条 prompt / batchPrompt 且没有配置 systemPrompt 时，按旧格式只发送一条用户消息。
+ */
+public class AiPrompts {
+
+    private final String system;
+    private final PromptTemplate user;
+    private final boolean legacy;
+    private final String batchSystem;
+    private final PromptTemplate batchUser;
+    private final boolean legacyBatch;
+    private final String introduce;
+    private final String sayHi;
+    private final String version;
+
+    private AiPrompts(AiConfig aiConfig, String sayHi) {
+        this.introduce = aiConfig.getIntroduce();
+        this.sayHi = sayHi;
+        this.legacy = isBlank(aiConfig.getSystemPrompt()) && !isBlank(aiConfig.getPrompt());
+        if (legacy) {
+            this.system = null;
+            this.user = PromptTemplate.compile(aiConfig.getPrompt());
+        } else {
+            this.system = PromptTemplate.compile(orDefault(aiConfig.getSystemPrompt(), AiConfig.DEFAULT_SYSTEM_PROMPT))
+                    .render(introduce, sayHi);
+            this.user = PromptTemplate.compile(orDefault(aiConfig.getUserPrompt(), AiConfig.DEFAULT_USER_PROMPT));
+        }
+        this.legacyBatch = !isBlank(aiConfig.getBatchPrompt());
+        if (legacyBatch) {
+            this.batchSystem = null;
+            this.batchUser = PromptTemplate.compile(aiConfig.getBatchPrompt());
+        } else {
+            this.batchSystem = PromptTemplate.compile(AiConfig.DEFAULT_BATCH_SYSTEM_PROMPT).render(introduce, sayHi);
+            this.batchUser = PromptTemplate.compile(AiConfig.DEFAULT_BATCH_USER_PROMPT);
+        }
+        this.version = AiVerdictCache.promptVersion(String.valueOf(system), user.toString(),
+                aiConfig.getBatchSize() > 1 ? String.valueOf(batchSystem) + batchUser : "", introduce, sayHi);
+    }
+
+    /**
+     * @param sayHi 默认招呼语
+     */
+    public static AiPrompts compile(AiConfig aiConfig, String sayHi) {
+        return new AiPrompts(aiConfig, sayHi);
+    }
+
+    /**
+     * 单个岗位的请求消息
+     *
+     * @param jd 已裁剪的岗位描述
+     */
+    public AiMessages single(String keyword, String jobName, String jd) {
+        if (legacy) {
+            return new AiMessages(null, user.render(introduce, keyword, jobName, jd, sayHi));
+        }
+        return new AiMessages(system, user.render(keyword, jobName, jd));
+    }
+
+    /**
+     * 批量筛选的请求消息
+     *
+     * @param jobs 拼接好的岗位列表
+     */
+    public AiMessages batch(String keyword, int count, String jobs) {
+        if (legacyBatch) {
+            return new AiMessages(null, batchUser.render(introduce, keyword, count, sayHi, jobs));
+        }
+        return new AiMessages(batchSystem, batchUser.render(keyword, count, jobs));
+    }
+
+    /**
+     * 提示词版本，任一提示词、介绍语或默认招呼语变化时随之变化，用于AI筛选结果缓存
+     */
+    public String version() {
+        return version;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private static String orDefault(String text, String defaultText) {
+        return isBlank(text) ? defaultText : text;
+    }
+}
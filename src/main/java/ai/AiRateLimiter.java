@@ -0,0 +1,85 @@
+package ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * AI接口限流
+ * 令牌桶控制每分钟请求数（允许短时突发到一分钟的额度），信号量控制同时进行的请求数；
+ * 收到 429 时整个服务商暂停一段时间（Retry-After），所有请求一起退避，而不是各自继续撞限流。
+ * 调用方在虚拟线程上阻塞等待。
+ */
+@Slf4j
+public class AiRateLimiter {
+
+    private final String provider;
+    private final double capacity;
+    private final double permitsPerMilli;
+    private final Semaphore inFlight;
+    private double permits;
+    private long lastRefill;
+    private long pausedUntil;
+
+    /**
+     * @param provider          服务商名称，仅用于日志
+     * @param requestsPerMinute 每分钟最多请求数
+     * @param maxConcurrency    最多同时进行的请求数
+     */
+    public AiRateLimiter(String provider, int requestsPerMinute, int maxConcurrency) {
+        this.provider = provider;
+        this.capacity = requestsPerMinute;
+        this.permitsPerMilli = requestsPerMinute / 60000.0;
+        this.inFlight = new Semaphore(maxConcurrency, true);
+        this.permits = capacity;
+        this.lastRefill = System.currentTimeMillis();
+    }
+
+    /**
+     * 等待并发名额和令牌，成功后必须调用 {@link #release()}
+     */
+    public void acquire() throws InterruptedException {
+        inFlight.acquire();
+        try {
+            long wait;
+            while ((wait = reserve()) > 0) {
+                Thread.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    public void release() {
+        inFlight.release();
+    }
+
+    /**
+     * 服务商要求退避时调用，期间不再发出新的请求
+     */
+    public synchronized void pause(long millis) {
+        long until = System.currentTimeMillis() + millis;
+        if (until > pausedUntil) {
+            pausedUntil = until;
+            log.warn("AI服务商【{}】限流，暂停{}毫秒", provider, millis);
+        }
+    }
+
+    /**
+     * 取一个令牌，成功返回 0，否则返回需要等待的毫秒数
+     */
+    private synchronized long reserve() {
+        long now = System.currentTimeMillis();
+        if (now < pausedUntil) {
+            return pausedUntil - now;
+        }
+        permits = Math.min(capacity, permits + (now - lastRefill) * permitsPerMilli);
+        lastRefill = now;
+        if (permits >= 1) {
+            permits -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - permits) / permitsPerMilli));
+    }
+}
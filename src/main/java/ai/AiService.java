@@ -5,16 +5,31 @@ import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.*;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author loks666
@@ -23,93 +38,450 @@ import java.util.concurrent.*;
 @Slf4j
 public class AiService {
 
-    private static final Dotenv dotenv = Dotenv.load();
-    private static final String BASE_URL = dotenv.get("BASE_URL") + "/v1/chat/completions";
-    private static final String API_KEY = dotenv.get("API_KEY");
-    private static final String MODEL = dotenv.get("MODEL");
+    private static final Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+    private static final String BASE_URL = setting("BASE_URL") + "/v1/chat/completions";
+    private static final String API_KEY = setting("API_KEY");
+    private static final String MODEL = setting("MODEL");
 
+    /**
+     * 请求超时时间（秒）
+     */
+    private static final int TIMEOUT_SECONDS = 60;
 
+    /**
+     * 首次重试的退避时间（毫秒），之后每次翻倍
+     */
+    private static final long BASE_BACKOFF_MILLIS = 1000;
+
+    private static final AiConfig CONFIG = AiConfig.get();
+    private static final int MAX_RETRIES = CONFIG.getMaxRetries();
+    private static final AiRateLimiter LIMITER = new AiRateLimiter(URI.create(BASE_URL).getHost(),
+            CONFIG.getRequestsPerMinute(), CONFIG.getMaxConcurrency());
+    private static final AiUsage USAGE = new AiUsage(Objects.requireNonNullElse(setting("AI_USAGE_PATH"),
+            "src/main/java/ai/usage.json"), CONFIG.getDailyTokenBudget());
+
+    /**
+     * 请求在虚拟线程上执行，等待限流和退避时阻塞的只是虚拟线程
+     */
+    private static final ExecutorService REQUEST_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 全局共享的 HttpClient：优先 HTTP/2，连接池与 TLS 会话在多次请求间复用（keep-alive），
+     * 回调在虚拟线程上执行，多个筛选请求可以同时进行
+     */
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    /**
+     * 读取配置：JVM 系统属性优先（本地压测时指向桩服务），其次为环境变量和 .env 文件
+     */
+    private static String setting(String key) {
+        String value = System.getProperty(key);
+        return value != null ? value : dotenv.get(key);
+    }
+
+    /**
+     * 单个请求（含全部重试与退避）最长可能耗时，不含排队等待限流名额的时间
+     */
+    public static long maxRequestMillis() {
+        long millis = (MAX_RETRIES + 1) * TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            millis += (BASE_BACKOFF_MILLIS << attempt) + BASE_BACKOFF_MILLIS / 2;
+        }
+        return millis;
+    }
+
+    /**
+     * 本次运行的用量统计，供压测读取重试次数等
+     */
+    static AiUsage usage() {
+        return USAGE;
+    }
+
+    /**
+     * 同步发送请求，失败或超时返回空字符串
+     */
     public static String sendRequest(String content) {
-        // 设置超时时间，单位：秒
-        int timeoutInSeconds = 60;  // 你可以修改这个变量来设置超时时间
+        return sendRequestAsync(content).join();
+    }
 
-        // 创建 HttpClient 实例并设置超时
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(timeoutInSeconds))  // 设置连接超时
-                .build();
+    /**
+     * 异步发送请求，不占用调用线程；经过限流，429/5xx/网络异常自动重试，最终失败、超时或超出每日额度时结果为空字符串
+     */
+    public static CompletableFuture<String> sendRequestAsync(String content) {
+        return sendRequestAsync(new AiMessages(null, content));
+    }
+
+    /**
+     * 同 {@link #sendRequestAsync(String)}，系统消息不为空时作为第一条消息发送
+     */
+    public static CompletableFuture<String> sendRequestAsync(AiMessages messages) {
+        return CompletableFuture.supplyAsync(() -> sendWithRetry(messages, null), REQUEST_EXECUTOR);
+    }
+
+    /**
+     * 流式返回的监听器
+     */
+    @FunctionalInterface
+    public interface StreamListener {
+        /**
+         * 收到一段新内容
+         *
+         * @param delta 本次新增的内容
+         * @param text  目前为止收到的全部内容
+         * @return 返回 false 时立即取消请求，结果为目前已收到的内容
+         */
+        boolean onText(String delta, String text);
+    }
+
+    /**
+     * 以流式（stream: true，SSE）方式异步发送请求，边接收边解析并回调 listener；
+     * listener 返回 false 时立即取消请求，不再等待剩余内容。限流与重试同 {@link #sendRequestAsync(String)}，
+     * 已经收到部分内容后不再重试。失败或超时时结果为空字符串
+     */
+    public static CompletableFuture<String> sendStreamRequestAsync(String content, StreamListener listener) {
+        return sendStreamRequestAsync(new AiMessages(null, content), listener);
+    }
+
+    /**
+     * 同 {@link #sendStreamRequestAsync(String, StreamListener)}，系统消息不为空时作为第一条消息发送
+     */
+    public static CompletableFuture<String> sendStreamRequestAsync(AiMessages messages, StreamListener listener) {
+        return CompletableFuture.supplyAsync(() -> sendWithRetry(messages, listener), REQUEST_EXECUTOR);
+    }
+
+    /**
+     * 输出本次运行的AI用量并保存当日累计
+     */
+    public static void logSummary() {
+        USAGE.save();
+        USAGE.logSummary();
+    }
 
+    /**
+     * 单次请求的结果：成功、不可重试的失败，或需要在 retryAfterMillis（未指定时为 0）后重试
+     */
+    private record Attempt(String text, boolean retry, long retryAfterMillis, String reason) {
+        static Attempt ok(String text) {
+            return new Attempt(text, false, 0, null);
+        }
+
+        static Attempt fail(String reason) {
+            return new Attempt("", false, 0, reason);
+        }
+
+        static Attempt retry(String reason, long retryAfterMillis) {
+            return new Attempt("", true, retryAfterMillis, reason);
+        }
+    }
+
+    /**
+     * 在虚拟线程上执行：等待限流名额后发送，可重试的失败按指数退避（服务端给出 Retry-After 时取两者较大值）重试
+     */
+    private static String sendWithRetry(AiMessages messages, StreamListener listener) {
+        for (int attempt = 0; ; attempt++) {
+            if (!USAGE.hasBudget()) {
+                USAGE.recordSkipped();
+                return "";
+            }
+            Attempt result;
+            try {
+                LIMITER.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "";
+            }
+            try {
+                USAGE.recordRequest();
+                result = listener == null ? sendOnce(messages) : streamOnce(messages, listener);
+            } finally {
+                LIMITER.release();
+            }
+            if (result.reason() == null) {
+                return result.text();
+            }
+            if (!result.retry() || attempt >= MAX_RETRIES) {
+                USAGE.recordFailure();
+                log.error("AI请求失败！{}", result.reason());
+                return "";
+            }
+            long backoff = Math.max(result.retryAfterMillis(), BASE_BACKOFF_MILLIS << attempt)
+                    + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS / 2);
+            if (result.retryAfterMillis() > 0) {
+                LIMITER.pause(backoff);
+            }
+            USAGE.recordRetry();
+            log.warn("AI请求失败：{}，{}毫秒后第{}次重试", result.reason(), backoff, attempt + 1);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "";
+            }
+        }
+    }
+
+    private static Attempt sendOnce(AiMessages messages) {
+        HttpResponse<String> response;
+        try {
+            response = CLIENT.send(buildRequest(messages, false), HttpResponse.BodyHandlers.ofString());
+        } catch (HttpTimeoutException e) {
+            return Attempt.retry("请求超时（" + TIMEOUT_SECONDS + "秒）", 0);
+        } catch (IOException e) {
+            return Attempt.retry("网络异常：" + e.getMessage(), 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Attempt.fail("请求被中断");
+        }
+        if (response.statusCode() != 200) {
+            return statusAttempt(response.statusCode(), response.headers(), response.body());
+        }
+        try {
+            return Attempt.ok(parseResponse(response));
+        } catch (Exception e) {
+            return Attempt.fail("响应解析失败：" + e.getMessage());
+        }
+    }
+
+    private static Attempt streamOnce(AiMessages messages, StreamListener listener) {
+        SseSubscriber subscriber = new SseSubscriber(messages, listener);
+        // 保留 sendAsync 返回的 future 本身，取消它才能中止请求（取消 whenComplete 派生的 future 没有作用）
+        CompletableFuture<HttpResponse<String>> exchange = CLIENT.sendAsync(buildRequest(messages, true), info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber, s -> "", StandardCharsets.UTF_8, null)
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8));
+        exchange.whenComplete((response, e) -> {
+            if (e != null) {
+                subscriber.result.completeExceptionally(e);
+            } else if (response.statusCode() != 200) {
+                subscriber.status = statusAttempt(response.statusCode(), response.headers(), response.body());
+                subscriber.result.complete("");
+            }
+        });
+        try {
+            // 请求自身的超时只管到响应头返回，流式内容另设整体超时
+            String text = subscriber.result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return subscriber.status != null ? subscriber.status : Attempt.ok(text);
+        } catch (TimeoutException e) {
+            // 响应头还未返回时 subscriber 无法取消，需要取消整个请求，否则重试时旧请求仍在后台生成
+            subscriber.cancel();
+            exchange.cancel(true);
+            return subscriber.received() ? Attempt.fail("流式返回超时（" + TIMEOUT_SECONDS + "秒）")
+                    : Attempt.retry("请求超时（" + TIMEOUT_SECONDS + "秒）", 0);
+        } catch (ExecutionException e) {
+            return subscriber.received() ? Attempt.fail("流式返回中断：" + e.getCause().getMessage())
+                    : Attempt.retry("网络异常：" + e.getCause().getMessage(), 0);
+        } catch (InterruptedException e) {
+            subscriber.cancel();
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            return Attempt.fail("请求被中断");
+        }
+    }
+
+    /**
+     * 非 200 响应：429 与 5xx 可重试，其余（如 401、400）重试也不会成功
+     */
+    private static Attempt statusAttempt(int statusCode, HttpHeaders headers, String body) {
+        String reason = "状态码: " + statusCode + ", 响应: " + body;
+        if (statusCode == 429) {
+            // 限流时即使没有 Retry-After 也让所有请求一起退避
+            return Attempt.retry(reason, Math.max(BASE_BACKOFF_MILLIS, retryAfterMillis(headers)));
+        }
+        if (statusCode >= 500) {
+            return Attempt.retry(reason, retryAfterMillis(headers));
+        }
+        return Attempt.fail(reason);
+    }
+
+    /**
+     * 解析 Retry-After，支持秒数和 HTTP 日期两种格式，缺失或无法解析时返回 0
+     */
+    private static long retryAfterMillis(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, (long) (Double.parseDouble(value.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static HttpRequest buildRequest(AiMessages content, boolean stream) {
         // 构建 JSON 请求体
         JSONObject requestData = new JSONObject();
         requestData.put("model", MODEL);
         requestData.put("temperature", 0.5);
+        if (stream) {
+            requestData.put("stream", true);
+            // 让流式返回的最后一块带上 usage，用于统计 token 用量
+            requestData.put("stream_options", new JSONObject().put("include_usage", true));
+        }
 
         // 添加消息内容
         JSONArray messages = new JSONArray();
+        if (content.system() != null) {
+            // 系统消息每个岗位都相同，放在最前面，服务商可以缓存这段前缀
+            messages.put(new JSONObject().put("role", "system").put("content", content.system()));
+        }
         JSONObject message = new JSONObject();
         message.put("role", "user");
-        message.put("content", content);
+        message.put("content", content.user());
         messages.put(message);
 
         requestData.put("messages", messages);
 
-        // 构建 HTTP 请求
-        HttpRequest request = HttpRequest.newBuilder()
+        // 构建 HTTP 请求，超时由 HttpClient 自身控制
+        return HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL))
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + API_KEY)
                 .POST(HttpRequest.BodyPublishers.ofString(requestData.toString()))
                 .build();
+    }
 
-        // 创建线程池用于执行请求
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Callable<HttpResponse<String>> task = () -> client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * 逐行解析 SSE：只处理 "data:" 行，取 choices[0].delta.content 累加，遇到 [DONE] 或连接结束即完成
+     * 在返回内容途中取消（判定为不匹配、超时）的请求收不到最后一块 usage，取消时按提示词和已收到的内容估算用量计入额度；
+     * 响应头返回前就取消的请求由调用方取消整个请求，不估算用量
+     */
+    private static class SseSubscriber implements Flow.Subscriber<String> {
+        private final AiMessages messages;
+        private final StreamListener listener;
+        private final StringBuilder text = new StringBuilder();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+        private volatile Attempt status;
+        private volatile boolean received;
+        /**
+         * 用量已计入（服务端返回的 usage 或取消时的估算），只计一次
+         */
+        private final AtomicBoolean charged = new AtomicBoolean();
 
-        // 提交请求并控制超时
-        Future<HttpResponse<String>> future = executor.submit(task);
-        try {
-            // 使用 future.get 设置超时
-            HttpResponse<String> response = future.get(timeoutInSeconds, TimeUnit.SECONDS);
-
-            if (response.statusCode() == 200) {
-                // 解析响应体
-                log.info(response.body());
-                JSONObject responseObject = new JSONObject(response.body());
-                String requestId = responseObject.getString("id");
-                long created = responseObject.getLong("created");
-                String model = responseObject.getString("model");
-
-                // 解析返回的内容
-                JSONObject messageObject = responseObject.getJSONArray("choices")
-                        .getJSONObject(0)
-                        .getJSONObject("message");
-                String responseContent = messageObject.getString("content");
-
-                // 解析 usage 部分
-                JSONObject usageObject = responseObject.getJSONObject("usage");
-                int promptTokens = usageObject.getInt("prompt_tokens");
-                int completionTokens = usageObject.getInt("completion_tokens");
-                int totalTokens = usageObject.getInt("total_tokens");
-
-                // 格式化时间
-                LocalDateTime createdTime = Instant.ofEpochSecond(created)
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDateTime();
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                String formattedTime = createdTime.format(formatter);
-
-                log.info("请求ID: {}, 创建时间: {}, 模型名: {}, 提示词: {}, 补全: {}, 总用量: {}", requestId, formattedTime, model, promptTokens, completionTokens, totalTokens);
-                return responseContent;
-            } else {
-                log.error("AI请求失败！状态码: {}", response.statusCode());
+        SseSubscriber(AiMessages messages, StreamListener listener) {
+            this.messages = messages;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (result.isDone() || !line.startsWith("data:")) {
+                return;
             }
-        } catch (TimeoutException e) {
-            log.error("请求超时！超时设置为 {} 秒", timeoutInSeconds);
-        } catch (Exception e) {
-            log.error("AI请求异常！", e);
-        } finally {
-            executor.shutdownNow();  // 关闭线程池
+            String data = line.substring(5).trim();
+            if ("[DONE]".equals(data)) {
+                result.complete(text.toString());
+                return;
+            }
+            try {
+                JSONObject chunk = new JSONObject(data);
+                JSONObject usage = chunk.optJSONObject("usage");
+                if (usage != null && charged.compareAndSet(false, true)) {
+                    USAGE.recordUsage(usage.optLong("prompt_tokens"), usage.optLong("completion_tokens"));
+                    log.info("请求ID: {}, 模型名: {}, 提示词: {}, 补全: {}, 总用量: {}", chunk.optString("id"),
+                            chunk.optString("model"), usage.optInt("prompt_tokens"),
+                            usage.optInt("completion_tokens"), usage.optInt("total_tokens"));
+                }
+                JSONArray choices = chunk.optJSONArray("choices");
+                JSONObject delta = choices == null || choices.isEmpty() ? null : choices.getJSONObject(0).optJSONObject("delta");
+                String piece = delta == null || delta.isNull("content") ? "" : delta.optString("content");
+                if (piece.isEmpty()) {
+                    return;
+                }
+                String current;
+                // 超时取消时会在其他线程读取已收到的内容
+                synchronized (text) {
+                    current = text.append(piece).toString();
+                }
+                received = true;
+                if (!listener.onText(piece, current)) {
+                    cancel();
+                    result.complete(current);
+                }
+            } catch (Exception e) {
+                log.warn("AI流式数据解析失败: {}", data);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
         }
-        return "";
+
+        @Override
+        public void onComplete() {
+            result.complete(text.toString());
+        }
+
+        boolean received() {
+            return received;
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current == null) {
+                return;
+            }
+            current.cancel();
+            if (charged.compareAndSet(false, true)) {
+                int prompt = AiPromptBuilder.estimateTokens(messages.user())
+                        + (messages.system() == null ? 0 : AiPromptBuilder.estimateTokens(messages.system()));
+                int completion;
+                synchronized (text) {
+                    completion = AiPromptBuilder.estimateTokens(text);
+                }
+                USAGE.recordUsage(prompt, completion);
+                log.debug("流式请求提前结束，按估算计入用量：提示词{}，补全{}", prompt, completion);
+            }
+        }
+    }
+
+    private static String parseResponse(HttpResponse<String> response) {
+        // 解析响应体
+        log.info(response.body());
+        JSONObject responseObject = new JSONObject(response.body());
+        String requestId = responseObject.getString("id");
+        long created = responseObject.getLong("created");
+        String model = responseObject.getString("model");
+
+        // 解析返回的内容
+        JSONObject messageObject = responseObject.getJSONArray("choices")
+                .getJSONObject(0)
+                .getJSONObject("message");
+        String responseContent = messageObject.getString("content");
+
+        // 解析 usage 部分
+        JSONObject usageObject = responseObject.getJSONObject("usage");
+        int promptTokens = usageObject.getInt("prompt_tokens");
+        int completionTokens = usageObject.getInt("completion_tokens");
+        int totalTokens = usageObject.getInt("total_tokens");
+        USAGE.recordUsage(promptTokens, completionTokens);
+
+        // 格式化时间
+        LocalDateTime createdTime = Instant.ofEpochSecond(created)
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        String formattedTime = createdTime.format(formatter);
+
+        log.info("请求ID: {}, 创建时间: {}, 模型名: {}, 提示词: {}, 补全: {}, 总用量: {}", requestId, formattedTime, model, promptTokens, completionTokens, totalTokens);
+        return responseContent;
     }
 
 
@@ -160,11 +532,10 @@ public class AiService {
         }
     }
 
+    /**
+     * 去掉JD中的反爬干扰词、混淆CSS、HTML标签和零宽字符，见 {@link JdNormalizer}
+     */
     public static String cleanBossDesc(String raw) {
-        return raw.replaceAll("kanzhun|BOSS直聘|来自BOSS直聘", "")
-                .replaceAll("[\\u200b-\\u200d\\uFEFF]", "")
-                .replaceAll("<[^>]+>", "") // 如果有HTML标签就用
-                .replaceAll("\\s+", " ")
-                .trim();
+        return JdNormalizer.normalize(raw);
     }
 }
@@ -0,0 +1,220 @@
+package ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地的 OpenAI 兼容桩服务，只实现 /v1/chat/completions（含 stream: true 的 SSE 返回）
+ * 用于在不消耗真实额度的情况下调试和压测 {@link AiService}：可配置响应延迟、500 错误率、429 限流率（带 Retry-After）
+ * 以及返回 false 的比例，usage 按 {@link AiPromptBuilder#estimateTokens(CharSequence)} 估算。
+ */
+@Slf4j
+public class AiStubServer implements AutoCloseable {
+
+    @Data
+    public static class Options {
+        /**
+         * 首个 token 前的固定延迟（毫秒）
+         */
+        private int latencyMillis = 300;
+        /**
+         * 在固定延迟基础上随机增加的最大抖动（毫秒）
+         */
+        private int jitterMillis = 200;
+        /**
+         * 流式返回时每块之间的间隔（毫秒）
+         */
+        private int chunkIntervalMillis = 20;
+        /**
+         * 返回 500 的比例
+         */
+        private double errorRate = 0;
+        /**
+         * 返回 429 的比例
+         */
+        private double rateLimitRate = 0;
+        /**
+         * 429 时的 Retry-After（秒）
+         */
+        private int retryAfterSeconds = 1;
+        /**
+         * 判定不匹配（返回 false）的比例
+         */
+        private double rejectRate = 0.5;
+        /**
+         * 判定匹配时返回的招呼语
+         */
+        private String greeting = "您好，我有5年Java开发经验，熟悉Spring Cloud微服务与高并发系统设计，和贵司岗位非常匹配，期待进一步沟通！";
+    }
+
+    private final Options options;
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger rateLimited = new AtomicInteger();
+
+    /**
+     * 在本机随机端口启动
+     */
+    public AiStubServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * 供 AiService 使用的 BASE_URL（不含 /v1/chat/completions）
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int errors() {
+        return errors.get();
+    }
+
+    public int rateLimited() {
+        return rateLimited.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JSONObject request = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(options.latencyMillis + (options.jitterMillis > 0 ? random.nextInt(options.jitterMillis + 1) : 0));
+
+            double roll = random.nextDouble();
+            if (roll < options.rateLimitRate) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(options.retryAfterSeconds));
+                sendJson(exchange, 429, new JSONObject().put("error", new JSONObject().put("message", "Rate limit reached")));
+                return;
+            }
+            if (roll < options.rateLimitRate + options.errorRate) {
+                errors.incrementAndGet();
+                sendJson(exchange, 500, new JSONObject().put("error", new JSONObject().put("message", "Internal error")));
+                return;
+            }
+
+            String content = random.nextDouble() < options.rejectRate ? "false" : options.greeting;
+            int promptTokens = promptTokens(request.optJSONArray("messages"));
+            int completionTokens = AiPromptBuilder.estimateTokens(content);
+            String id = "chatcmpl-" + UUID.randomUUID();
+            if (request.optBoolean("stream")) {
+                stream(exchange, request, id, content, promptTokens, completionTokens);
+            } else {
+                JSONObject response = new JSONObject()
+                        .put("id", id)
+                        .put("object", "chat.completion")
+                        .put("created", System.currentTimeMillis() / 1000)
+                        .put("model", request.optString("model", "stub"))
+                        .put("choices", new JSONArray().put(new JSONObject()
+                                .put("index", 0)
+                                .put("message", new JSONObject().put("role", "assistant").put("content", content))
+                                .put("finish_reason", "stop")))
+                        .put("usage", usage(promptTokens, completionTokens));
+                sendJson(exchange, 200, response);
+            }
+        } catch (Exception e) {
+            log.debug("桩服务请求中断: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按 SSE 逐块返回，每块 2 个字符；请求带 stream_options.include_usage 时最后一块附带 usage
+     */
+    private void stream(HttpExchange exchange, JSONObject request, String id, String content,
+                        int promptTokens, int completionTokens) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        long created = System.currentTimeMillis() / 1000;
+        String model = request.optString("model", "stub");
+        for (int i = 0; i < content.length(); i += 2) {
+            JSONObject chunk = new JSONObject()
+                    .put("id", id)
+                    .put("object", "chat.completion.chunk")
+                    .put("created", created)
+                    .put("model", model)
+                    .put("choices", new JSONArray().put(new JSONObject()
+                            .put("index", 0)
+                            .put("delta", new JSONObject().put("content", content.substring(i, Math.min(content.length(), i + 2))))));
+            writeEvent(out, chunk.toString());
+            sleep(options.chunkIntervalMillis);
+        }
+        JSONObject streamOptions = request.optJSONObject("stream_options");
+        if (streamOptions != null && streamOptions.optBoolean("include_usage")) {
+            writeEvent(out, new JSONObject()
+                    .put("id", id)
+                    .put("object", "chat.completion.chunk")
+                    .put("created", created)
+                    .put("model", model)
+                    .put("choices", new JSONArray())
+                    .put("usage", usage(promptTokens, completionTokens)).toString());
+        }
+        writeEvent(out, "[DONE]");
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static int promptTokens(JSONArray messages) {
+        int tokens = 0;
+        for (int i = 0; messages != null && i < messages.length(); i++) {
+            tokens += AiPromptBuilder.estimateTokens(messages.getJSONObject(i).optString("content"));
+        }
+        return tokens;
+    }
+
+    private static JSONObject usage(int promptTokens, int completionTokens) {
+        return new JSONObject()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
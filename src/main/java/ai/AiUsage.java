@@ -0,0 +1,156 @@
+package ai;
+
+import com.alibaba.fastjson.JSON;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+
+/**
+ * AI用量统计
+ * 累计本次运行的请求、重试、失败次数以及 usage 中的 prompt_tokens / completion_tokens；
+ * 当天的 token 总量保存在磁盘上，多次运行共用同一个每日额度，超出后不再请求AI。
+ */
+@Slf4j
+public class AiUsage {
+
+    /**
+     * 每记录多少次用量落盘一次，其余在运行结束时统一保存
+     */
+    private static final int SAVE_EVERY = 20;
+
+    @Data
+    public static class Daily {
+        private String date;
+        private long promptTokens;
+        private long completionTokens;
+    }
+
+    private final Path path;
+    private final long dailyTokenBudget;
+    private Daily daily;
+    private int requests = 0;
+    private int retries = 0;
+    private int failures = 0;
+    private int skipped = 0;
+    private long promptTokens = 0;
+    private long completionTokens = 0;
+    private int unsaved = 0;
+
+    /**
+     * @param dailyTokenBudget 每日 token 额度，0 为不限制
+     */
+    public AiUsage(String path, long dailyTokenBudget) {
+        this.path = Paths.get(path);
+        this.dailyTokenBudget = dailyTokenBudget;
+        this.daily = load();
+    }
+
+    /**
+     * 今日额度是否还有剩余
+     */
+    public synchronized boolean hasBudget() {
+        rollover();
+        return dailyTokenBudget <= 0 || daily.getPromptTokens() + daily.getCompletionTokens() < dailyTokenBudget;
+    }
+
+    public synchronized void recordUsage(long prompt, long completion) {
+        rollover();
+        promptTokens += prompt;
+        completionTokens += completion;
+        daily.setPromptTokens(daily.getPromptTokens() + prompt);
+        daily.setCompletionTokens(daily.getCompletionTokens() + completion);
+        if (++unsaved >= SAVE_EVERY) {
+            save();
+        }
+    }
+
+    public synchronized void recordRequest() {
+        requests++;
+    }
+
+    public synchronized void recordRetry() {
+        retries++;
+    }
+
+    public synchronized void recordFailure() {
+        failures++;
+    }
+
+    /**
+     * 记录因超出额度而未发送的请求，第一次超出时提示
+     */
+    public synchronized void recordSkipped() {
+        if (skipped++ == 0) {
+            log.warn("今日AI token用量已达额度{}，后续岗位不再请求AI", dailyTokenBudget);
+        }
+    }
+
+    synchronized int requests() {
+        return requests;
+    }
+
+    synchronized int retries() {
+        return retries;
+    }
+
+    synchronized int failures() {
+        return failures;
+    }
+
+    private void rollover() {
+        String today = LocalDate.now().toString();
+        if (!today.equals(daily.getDate())) {
+            daily = new Daily();
+            daily.setDate(today);
+        }
+    }
+
+    private Daily load() {
+        if (Files.exists(path)) {
+            try {
+                Daily saved = JSON.parseObject(Files.readString(path, StandardCharsets.UTF_8), Daily.class);
+                if (saved != null && LocalDate.now().toString().equals(saved.getDate())) {
+                    return saved;
+                }
+            } catch (Exception e) {
+                log.warn("读取AI用量记录失败: {}", e.getMessage());
+            }
+        }
+        Daily fresh = new Daily();
+        fresh.setDate(LocalDate.now().toString());
+        return fresh;
+    }
+
+    /**
+     * 保存当天用量，先写临时文件再原子替换
+     */
+    public synchronized void save() {
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "ai-usage", ".tmp");
+            Files.writeString(tmp, JSON.toJSONString(daily), StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsaved = 0;
+        } catch (IOException e) {
+            log.error("保存AI用量记录失败: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void logSummary() {
+        if (requests == 0 && skipped == 0) {
+            return;
+        }
+        log.info("AI用量：请求{}次，重试{}次，失败{}次，超额跳过{}次，提示词{} tokens，补全{} tokens；今日累计{} tokens{}",
+                requests, retries, failures, skipped, promptTokens, completionTokens,
+                daily.getPromptTokens() + daily.getCompletionTokens(),
+                dailyTokenBudget > 0 ? "（额度" + dailyTokenBudget + "）" : "");
+    }
+}
@@ -0,0 +1,163 @@
+package ai;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AI筛选结果磁盘缓存
+ * 以"规范化JD + 关键词 + 岗位名称 + 提示词版本"的 SHA-256 作为键，保存是否匹配以及生成的打招呼语。
+ * 提示词、自我介绍或默认招呼语变化后版本随之变化，旧结果自然失效。
+ * 按最近访问顺序淘汰（LRU），超过 TTL 的结果视为未命中。
+ */
+@Slf4j
+public class AiVerdictCache {
+
+    /**
+     * 每新增多少条结果落盘一次，其余在运行结束时统一保存
+     */
+    private static final int SAVE_EVERY = 20;
+
+    @Data
+    public static class Verdict {
+        private boolean result;
+        private String message;
+        private long createdAt;
+    }
+
+    private final Path path;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Verdict> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private int hits = 0;
+    private int misses = 0;
+    private int unsaved = 0;
+
+    public AiVerdictCache(String path, int ttlDays, int maxEntries) {
+        this.path = Paths.get(path);
+        this.ttlMillis = Duration.ofDays(ttlDays).toMillis();
+        this.maxEntries = maxEntries;
+        load();
+    }
+
+    /**
+     * 计算缓存键
+     *
+     * @param promptVersion 提示词版本，见 {@link #promptVersion(String...)}
+     */
+    public static String key(String jd, String keyword, String jobName, String promptVersion) {
+        String normalized = AiService.cleanBossDesc(jd == null ? "" : jd);
+        return sha256(normalized + '\u0000' + keyword + '\u0000' + jobName + '\u0000' + promptVersion);
+    }
+
+    /**
+     * 由提示词模板及其参数生成版本号，任一内容变化版本即变化
+     */
+    public static String promptVersion(String... parts) {
+        return sha256(String.join("\u0000", parts)).substring(0, 16);
+    }
+
+    /**
+     * 读取未过期的筛选结果，未命中返回 null
+     */
+    public synchronized AiFilter get(String key) {
+        Verdict verdict = entries.get(key);
+        if (verdict == null || System.currentTimeMillis() - verdict.getCreatedAt() > ttlMillis) {
+            if (verdict != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return verdict.isResult() ? new AiFilter(true, verdict.getMessage()) : new AiFilter(false);
+    }
+
+    public synchronized void put(String key, AiFilter filter) {
+        Verdict verdict = new Verdict();
+        verdict.setResult(Boolean.TRUE.equals(filter.getResult()));
+        verdict.setMessage(filter.getMessage());
+        verdict.setCreatedAt(System.currentTimeMillis());
+        entries.put(key, verdict);
+        evict();
+        if (++unsaved >= SAVE_EVERY) {
+            save();
+        }
+    }
+
+    private void evict() {
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            JSONObject json = JSON.parseObject(Files.readString(path, StandardCharsets.UTF_8), Feature.OrderedField);
+            long now = System.currentTimeMillis();
+            // 文件按最近访问从旧到新保存，依次放入即可恢复 LRU 顺序
+            for (Map.Entry<String, Object> entry : json.entrySet()) {
+                Verdict verdict = json.getObject(entry.getKey(), Verdict.class);
+                if (verdict != null && now - verdict.getCreatedAt() <= ttlMillis) {
+                    entries.put(entry.getKey(), verdict);
+                }
+            }
+            evict();
+            log.info("已加载AI筛选缓存{}条", entries.size());
+        } catch (Exception e) {
+            log.warn("读取AI筛选缓存失败，将重新生成: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 保存到磁盘，先写临时文件再原子替换
+     */
+    public synchronized void save() {
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "ai-verdict", ".tmp");
+            Files.writeString(tmp, JSON.toJSONString(entries), StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsaved = 0;
+        } catch (IOException e) {
+            log.error("保存AI筛选缓存失败: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void logSummary() {
+        int total = hits + misses;
+        log.info("AI筛选缓存：命中{}次，未命中{}次，命中率{}%，缓存条数{}", hits, misses,
+                total == 0 ? 0 : hits * 100 / total, entries.size());
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
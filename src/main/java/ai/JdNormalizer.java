@@ -0,0 +1,129 @@
+package ai;
+
+/**
+ * 岗位描述（JD）规范化
+ * 一次遍历完成原先多次正则替换的工作：去掉反爬插入的干扰词（kanzhun、BOSS直聘等）、
+ * 混在正文前面的混淆 CSS 规则（如 .EwyXFHpFfseN{display:inline-block;...}）、HTML 标签和零宽字符，
+ * 连续空白合并为一个空格并去掉首尾空白。
+ */
+public class JdNormalizer {
+
+    /**
+     * 反爬干扰词，较长的放在前面，保证"来自BOSS直聘"整体去掉
+     */
+    private static final String[] NOISE_WORDS = {"来自BOSS直聘", "BOSS直聘", "kanzhun"};
+
+    private JdNormalizer() {
+    }
+
+    public static String normalize(CharSequence raw) {
+        if (raw == null) {
+            return "";
+        }
+        int length = raw.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (c >= '\u200b' && c <= '\u200d' || c == '\ufeff') {
+                i++;
+                continue;
+            }
+            int skip = skipNoise(raw, i);
+            if (skip == 0 && c == '.') {
+                skip = skipCssRule(raw, i);
+            }
+            if (skip == 0 && c == '<') {
+                skip = skipTag(raw, i);
+            }
+            if (skip > 0) {
+                i += skip;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static int skipNoise(CharSequence text, int start) {
+        char c = text.charAt(start);
+        if (c != '来' && c != 'B' && c != 'k') {
+            return 0;
+        }
+        for (String word : NOISE_WORDS) {
+            if (regionMatches(text, start, word)) {
+                return word.length();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * ".类名{...}" 形式的 CSS 规则，返回其长度；不是 CSS 规则时返回 0
+     */
+    private static int skipCssRule(CharSequence text, int start) {
+        int i = start + 1;
+        int length = text.length();
+        while (i < length && isCssIdentChar(text.charAt(i))) {
+            i++;
+        }
+        if (i == start + 1 || i >= length || text.charAt(i) != '{') {
+            return 0;
+        }
+        while (i < length && text.charAt(i) != '}') {
+            i++;
+        }
+        return i < length ? i + 1 - start : 0;
+    }
+
+    /**
+     * HTML 标签（&lt;p&gt;、&lt;/div&gt;、&lt;br/&gt;），返回其长度；不是标签时返回 0
+     */
+    private static int skipTag(CharSequence text, int start) {
+        int length = text.length();
+        if (start + 1 >= length) {
+            return 0;
+        }
+        char next = text.charAt(start + 1);
+        if (!(next < 128 && Character.isLetter(next)) && next != '/' && next != '!') {
+            return 0;
+        }
+        for (int i = start + 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '>') {
+                return i + 1 - start;
+            }
+            if (c == '<' || c == '\n') {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isCssIdentChar(char c) {
+        return c < 128 && (Character.isLetterOrDigit(c) || c == '-' || c == '_');
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, String word) {
+        if (start + word.length() > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < word.length(); j++) {
+            if (text.charAt(start + j) != word.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,187 @@
+package ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 岗位描述与个人介绍的本地相关度预筛
+ * 以"自我介绍 + 搜索关键词"为查询、"岗位名称 + 清洗后的JD"为文档计算 BM25 分数，并归一化到 0~1：
+ * 低于 rejectBelow 直接判定不匹配，高于 acceptAbove 直接判定匹配（使用默认招呼语），只有中间部分才请求AI。
+ * 中文按相邻两字切分（bigram），英文/数字按整词切分；IDF 由本次运行已评分的JD逐步累积，通用词（如"经验""负责"）权重会越来越低。
+ * 归一化的上限只计入语料中出现过的查询词，从未出现过的词（自我介绍里的大量bigram）不会压低分数；
+ * 语料不足 {@link #MIN_DOCUMENTS} 个JD时IDF还不稳定，只计分、不直接拒绝或通过。
+ */
+@Slf4j
+public class JdRelevanceScorer {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /**
+     * 关键词相对自我介绍的权重
+     */
+    private static final double KEYWORD_WEIGHT = 3.0;
+    /**
+     * 评分过的JD达到此数量后才按阈值直接拒绝/通过
+     */
+    static final int MIN_DOCUMENTS = 20;
+
+    public enum Band {
+        REJECT("直接拒绝"),
+        AMBIGUOUS("交给AI"),
+        ACCEPT("直接通过");
+
+        private final String desc;
+
+        Band(String desc) {
+            this.desc = desc;
+        }
+    }
+
+    private final double rejectBelow;
+    private final double acceptAbove;
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private final Map<String, Map<String, Double>> queries = new HashMap<>();
+    private final String introduce;
+    private final int[] bandCounts = new int[Band.values().length];
+    private int documents = 0;
+    private long totalLength = 0;
+
+    public JdRelevanceScorer(String introduce, double rejectBelow, double acceptAbove) {
+        this.introduce = introduce == null ? "" : introduce;
+        this.rejectBelow = rejectBelow;
+        this.acceptAbove = acceptAbove;
+    }
+
+    /**
+     * 阈值是否生效，rejectBelow ≤ 0 且 acceptAbove ≥ 1 时所有岗位都会交给AI
+     */
+    public boolean isEnabled() {
+        return rejectBelow > 0 || acceptAbove < 1;
+    }
+
+    /**
+     * 计算相关度并划分区间，同时计入统计
+     */
+    public synchronized Band classify(String keyword, String jobName, String jd) {
+        double score = score(keyword, jobName, jd);
+        Band band = documents < MIN_DOCUMENTS ? Band.AMBIGUOUS
+                : score < rejectBelow ? Band.REJECT : score > acceptAbove ? Band.ACCEPT : Band.AMBIGUOUS;
+        bandCounts[band.ordinal()]++;
+        log.debug("本地预筛：{} | 相关度{} | {}", jobName, String.format("%.3f", score), band.desc);
+        return band;
+    }
+
+    /**
+     * 归一化的 BM25 分数，0 表示没有任何查询词出现，1 表示语料中出现过的查询词在本JD中都大量出现
+     */
+    synchronized double score(String keyword, String jobName, String jd) {
+        Map<String, Integer> termFrequency = new HashMap<>();
+        List<String> tokens = tokenize((jobName == null ? "" : jobName) + " " + AiService.cleanBossDesc(jd == null ? "" : jd));
+        for (String token : tokens) {
+            termFrequency.merge(token, 1, Integer::sum);
+        }
+        // 先把当前文档计入语料，保证第一个JD也有可用的IDF
+        documents++;
+        totalLength += tokens.size();
+        for (String term : termFrequency.keySet()) {
+            documentFrequency.merge(term, 1, Integer::sum);
+        }
+        double lengthNorm = K1 * (1 - B + B * tokens.size() / ((double) totalLength / documents));
+        double score = 0;
+        double max = 0;
+        for (Map.Entry<String, Double> entry : query(keyword).entrySet()) {
+            int df = documentFrequency.getOrDefault(entry.getKey(), 0);
+            if (df == 0) {
+                // 任何JD都没有的词对哪个岗位都一样，不计入上限
+                continue;
+            }
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            double weight = entry.getValue() * idf;
+            int tf = termFrequency.getOrDefault(entry.getKey(), 0);
+            score += weight * tf * (K1 + 1) / (tf + lengthNorm);
+            max += weight * (K1 + 1);
+        }
+        return max == 0 ? 0 : score / max;
+    }
+
+    private Map<String, Double> query(String keyword) {
+        return queries.computeIfAbsent(keyword == null ? "" : keyword, k -> {
+            Map<String, Double> weights = new HashMap<>();
+            for (String token : tokenize(introduce)) {
+                weights.put(token, 1.0);
+            }
+            for (String token : tokenize(k)) {
+                weights.put(token, KEYWORD_WEIGHT);
+            }
+            return weights;
+        });
+    }
+
+    /**
+     * 分词：连续的英文字母/数字（含 + # .，如 c++、c#、vue.js）作为一个词并转小写，
+     * 连续的中文按相邻两字切分，单个汉字单独成词，其余字符作为分隔符
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < length && (isWordChar(text.charAt(i)) || isWordSymbol(text.charAt(i)))) {
+                    i++;
+                }
+                tokens.add(trimTrailingDot(text.substring(start, i).toLowerCase()));
+            } else if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(String.valueOf(c));
+                }
+                for (int j = start; j + 1 < i; j++) {
+                    tokens.add(text.substring(j, j + 2));
+                }
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isWordChar(char c) {
+        return c < 128 && Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isWordSymbol(char c) {
+        return c == '+' || c == '#' || c == '.';
+    }
+
+    private static boolean isCjk(char c) {
+        return c >= '\u4e00' && c <= '\u9fff';
+    }
+
+    private static String trimTrailingDot(String token) {
+        int end = token.length();
+        while (end > 1 && token.charAt(end - 1) == '.') {
+            end--;
+        }
+        return token.substring(0, end);
+    }
+
+    public synchronized void logSummary() {
+        if (documents == 0) {
+            return;
+        }
+        log.info("本地相关度预筛（拒绝<{}，通过>{}）：{}{}个，{}{}个，{}{}个", rejectBelow, acceptAbove,
+                Band.REJECT.desc, bandCounts[Band.REJECT.ordinal()],
+                Band.AMBIGUOUS.desc, bandCounts[Band.AMBIGUOUS.ordinal()],
+                Band.ACCEPT.desc, bandCounts[Band.ACCEPT.ordinal()]);
+    }
+}
@@ -0,0 +1,69 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预编译的提示词模板
+ * 启动时把 "...%s...%d..." 拆成固定文本和参数位置，渲染时只做字符串拼接，不再每次解析格式串；
+ * 支持 %s、%d 和 %%，含其他格式说明符时退回 {@link String#format}。
+ */
+public class PromptTemplate {
+
+    private final String pattern;
+    private final List<String> literals = new ArrayList<>();
+    private final boolean fallback;
+
+    private PromptTemplate(String pattern) {
+        this.pattern = pattern;
+        StringBuilder literal = new StringBuilder();
+        boolean unsupported = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            char spec = i + 1 < pattern.length() ? pattern.charAt(i + 1) : 0;
+            if (spec == '%') {
+                literal.append('%');
+            } else if (spec == 's' || spec == 'd') {
+                literals.add(literal.toString());
+                literal.setLength(0);
+            } else {
+                unsupported = true;
+                break;
+            }
+            i++;
+        }
+        literals.add(literal.toString());
+        this.fallback = unsupported;
+    }
+
+    public static PromptTemplate compile(String pattern) {
+        return new PromptTemplate(pattern);
+    }
+
+    /**
+     * 按顺序填入参数，参数不足时对应位置为空，多余参数忽略
+     */
+    public String render(Object... args) {
+        if (fallback) {
+            return String.format(pattern, args);
+        }
+        StringBuilder out = new StringBuilder(pattern.length() + 256);
+        out.append(literals.get(0));
+        for (int i = 1; i < literals.size(); i++) {
+            if (i - 1 < args.length) {
+                out.append(args[i - 1]);
+            }
+            out.append(literals.get(i));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
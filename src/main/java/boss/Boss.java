@@ -1,29 +1,34 @@
 package boss;
 
+import ai.AiBatchScreener;
 import ai.AiConfig;
 import ai.AiFilter;
+import ai.AiMessages;
+import ai.AiPromptBuilder;
+import ai.AiPrompts;
 import ai.AiService;
+import ai.AiVerdictCache;
+import ai.JdRelevanceScorer;
 import ch.qos.logback.classic.LoggerContext;
-import com.alibaba.fastjson.JSON;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
 import lombok.SneakyThrows;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utils.*;
 
 import java.io.File;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.Scanner;
 
@@ -49,33 +54,38 @@ public class Boss {
     static Set<String> blackCompanies;
     static Set<String> blackRecruiters;
     static Set<String> blackJobs;
+    static BlacklistStore blacklist;
+    /**
+     * 历次运行已投递/沟通过的岗位，列表阶段命中即不再点击
+     */
+    static AppliedJobs appliedJobs;
+    /**
+     * 其他平台已投递过的相同岗位
+     */
+    static JobDedup jobDedup;
     static Set<String> cityArea;
-    static List<Job> resultList = new ArrayList<>();
+    static KeywordMatcher deadStatusMatcher;
+    static KeywordMatcher keywordMatcher;
+    static List<Job> resultList = Collections.synchronizedList(new ArrayList<>());
     static String dataPath = "src/main/java/boss/data.json";
     static String cookiePath = "src/main/java/boss/cookie.json";
     static Date startDate;
     static BossConfig config = BossConfig.init();
+    static BossFilter filter;
+    /**
+     * 本次运行已处理过的岗位，多城市/多关键词（含并行搜索）共用，同一岗位只处理一次
+     */
+    static Set<String> discoveredJobs = ConcurrentHashMap.newKeySet();
+    static AtomicInteger duplicateJobs = new AtomicInteger();
+    static String aiCachePath = "src/main/java/ai/verdict-cache.json";
+    static AiVerdictCache aiVerdictCache;
+    static AiBatchScreener aiBatchScreener;
+    static AiPrompts aiPrompts;
+    static JdRelevanceScorer relevanceScorer;
+    static WaitHistogram listWaits = new WaitHistogram("Boss列表");
 
     static {
         try {
-            // 检查dataPath文件是否存在，不存在则创建
-            File dataFile = new File(dataPath);
-            if (!dataFile.exists()) {
-                // 确保父目录存在
-                if (!dataFile.getParentFile().exists()) {
-                    dataFile.getParentFile().mkdirs();
-                }
-                // 创建文件并写入初始JSON结构
-                Map<String, Set<String>> initialData = new HashMap<>();
-                initialData.put("blackCompanies", new HashSet<>());
-                initialData.put("blackRecruiters", new HashSet<>());
-                initialData.put("blackJobs", new HashSet<>());
-                initialData.put("cityArea", new HashSet<>());
-                String initialJson = JSONUtils.customJsonFormat(initialData);
-                Files.write(Paths.get(dataPath), initialJson.getBytes());
-                log.info("创建数据文件: {}", dataPath);
-            }
-
             // 检查cookiePath文件是否存在，不存在则创建
             File cookieFile = new File(cookiePath);
             if (!cookieFile.exists()) {
@@ -93,25 +103,76 @@ public class Boss {
     }
 
     public static void main(String[] args) {
+        // 定时任务在同一进程中多次调用 main，本次运行的去重与统计从零开始
+        discoveredJobs.clear();
+        duplicateJobs.set(0);
+        listWaits = new WaitHistogram("Boss列表");
         loadData(dataPath);
-        // 使用 PlayWright 获取岗位
-        PlaywrightUtil.init();
-        startDate = new Date();
-        login();
-        config.getCityCode().forEach(Boss::postJobByCity);
-        log.info(resultList.isEmpty() ? "未发起新的聊天..." : "新发起聊天公司如下:\n{}",
-                resultList.stream().map(Object::toString).collect(Collectors.joining("\n")));
-        if (!config.getDebugger()) {
-            printResult();
+        try {
+            appliedJobs = AppliedJobs.open(Platform.BOSS);
+            jobDedup = JobDedup.open(Platform.BOSS);
+            try {
+                filter = new BossFilter(config, blacklist, deadStatusMatcher, keywordMatcher);
+                // 使用 PlayWright 获取岗位
+                PlaywrightUtil.init();
+                startDate = new Date();
+                login();
+                List<BossSearchWorker.Shard> shards = buildShards();
+                BossSubmitPipeline.SendThrottle throttle = BossSubmitPipeline.SendThrottle.fromConfig(config);
+                int parallelism = Math.min(config.getSearchParallelism(), shards.size());
+                if (parallelism <= 1) {
+                    Page page = PlaywrightUtil.getPageObject();
+                    BossSubmitPipeline pipeline = new BossSubmitPipeline(page.context(), config, resultList, appliedJobs, jobDedup, throttle);
+                    shards.forEach(shard -> postJobByKeyword(page, pipeline, shard));
+                    pipeline.logSummary();
+                } else {
+                    // 多个浏览器共享当前登录状态，并行处理城市×关键词
+                    BossSearchWorker.runAll(shards, parallelism, PlaywrightUtil.getPageObject().context().storageState(), throttle);
+                }
+                filter.logSummary();
+                listWaits.logSummary();
+                log.info("重复岗位跳过{}个", duplicateJobs.get());
+            } finally {
+                // 中途抛出异常也要输出统计并关闭写入，定时任务下次运行重新打开；需在 printResult 停止日志之前执行
+                closeJobIndexes();
+            }
+            if (aiVerdictCache != null) {
+                aiVerdictCache.save();
+                aiVerdictCache.logSummary();
+            }
+            if (aiBatchScreener != null) {
+                aiBatchScreener.logSummary();
+            }
+            if (relevanceScorer != null) {
+                relevanceScorer.logSummary();
+            }
+            if (config.getEnableAI()) {
+                AiService.logSummary();
+            }
+            log.info(resultList.isEmpty() ? "未发起新的聊天..." : "新发起聊天公司如下:\n{}",
+                    resultList.stream().map(Object::toString).collect(Collectors.joining("\n")));
+            if (!config.getDebugger()) {
+                printResult();
+            }
+        } finally {
+            // 运行中途抛出异常或调试模式不执行 printResult 时也要释放黑名单，定时任务下次运行才能重新打开
+            blacklist.close();
         }
     }
 
+    private static void closeJobIndexes() {
+        appliedJobs.logSummary();
+        appliedJobs.close();
+        jobDedup.logSummary();
+        jobDedup.close();
+    }
+
     private static void printResult() {
         String message = String.format("\nBoss投递完成，共发起%d个聊天，用时%s", resultList.size(),
                 formatDuration(startDate, new Date()));
         log.info(message);
         sendMessageByTime(message);
-        saveData(dataPath);
+        saveData();
         resultList.clear();
         if (!config.getDebugger()) {
             PlaywrightUtil.close();
@@ -128,177 +189,214 @@ public class Boss {
         }
     }
 
-    private static void postJobByCity(String cityCode) {
-        String searchUrl = getSearchUrl(cityCode);
-        List<String> cityAreaList = config.getCityArea();
-        if (cityAreaList != null && !cityAreaList.isEmpty()) {
-            HashMap<String, String> params = new HashMap<>();
-            params.put("cityCode", cityCode);
-            BossResp bossResp = HttpUtils.get("https://www.zhipin.com/wapi/zpgeek/businessDistrict.json", params, BossResp.class);
-            Object zpData = bossResp.getZpData();
-            if (zpData != null) {
-                String zpDataStr = JSON.toJSONString(zpData);
-                com.alibaba.fastjson.JSONObject jsonObject = com.alibaba.fastjson.JSONObject.parseObject(zpDataStr);
-                BossCity bossCity = JSON.toJavaObject(jsonObject.getJSONObject("businessDistrict"), BossCity.class);
-                List<BossCity> subLevelModelList = bossCity.getSubLevelModelList();
-                String areaCode = "";
-                for (BossCity area : subLevelModelList) {
-                    if (cityAreaList.contains(area.getName())) {
-                        areaCode += area.getCode() + ",";
-                    }
-                }
-                if (areaCode.length() > 0) {
-                    areaCode = areaCode.substring(0, areaCode.length() - 1);
+    /**
+     * 将城市×关键词拆成搜索分片，城市的商圈编码在这里一次性解析
+     */
+    private static List<BossSearchWorker.Shard> buildShards() {
+        List<BossSearchWorker.Shard> shards = new ArrayList<>();
+        for (String cityCode : config.getCityCode()) {
+            String searchUrl = getSearchUrl(cityCode);
+            List<String> cityAreaList = config.getCityArea();
+            if (cityAreaList != null && !cityAreaList.isEmpty()) {
+                // 商圈编码走磁盘缓存，过期后先用旧值、后台刷新
+                String areaCode = BossRefData.businessDistrictCodes(cityCode, cityAreaList);
+                if (!areaCode.isEmpty()) {
                     searchUrl += JobUtils.appendParam("multiBusinessDistrict", areaCode);
                     log.info("投递地址:{}", searchUrl);
                 }
             }
-        }
-
-        for (String keyword : config.getKeywords()) {
-            int postCount = 0;
-            // 使用 URLEncoder 对关键词进行编码
-            String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
-
-            String url = searchUrl + "&query=" + encodedKeyword;
-            log.info("投递地址:{}", searchUrl + "&query=" + keyword);
-            com.microsoft.playwright.Page page = PlaywrightUtil.getPageObject();
-            page.navigate(url);
-
-            // 1. 滚动到底部，加载所有岗位卡片
-            int lastCount = -1;
-            while (true) {
-                // 滑动到底部
-                page.evaluate("window.scrollTo(0, document.body.scrollHeight);");
-                PlaywrightUtil.sleep(1); // 等待加载（可根据速度调整）
-
-                // 获取所有卡片数
-                Locator cards = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
-                int currentCount = cards.count();
-
-                // 判断是否继续滑动
-                if (currentCount == lastCount) {
-                    break; // 没有新内容，跳出循环
-                }
-                lastCount = currentCount;
+            for (String keyword : config.getKeywords()) {
+                shards.add(new BossSearchWorker.Shard(cityCode, searchUrl, keyword));
             }
-            log.info("【{}】岗位已全部加载，总数:{}", keyword, lastCount);
-
-            // 2. 回到页面顶部
-            page.evaluate("window.scrollTo(0, 0);");
-            PlaywrightUtil.sleep(1);
-
-            // 3. 逐个遍历所有岗位
-            Locator cards = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
-            int count = cards.count();
-            for (int i = 0; i < count; i++) {
-                // 重新获取卡片，避免元素过期
-                cards = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
-                Locator currentDom = cards.nth(i);
-                currentDom.click();
-                PlaywrightUtil.sleep(1);
-
-                // 先获取公司地址
-
-                // Boss公司地址
-                String bossCompanyArea = safeText(currentDom, "span[class*='company-location']");
-                String[] companyArea = bossCompanyArea.split("·");
-
-                // 等待详情内容加载
-                page.waitForSelector("div[class*='job-detail-box']", new Page.WaitForSelectorOptions().setTimeout(5000));
-                Locator detailBox = page.locator("div[class*='job-detail-box']");
-
-                // 岗位名称
-                String jobName = safeText(detailBox, "span[class*='job-name']");
-                List<String> keywords = config.getKeywords();
-                boolean getJOB = false;
-                for (String s : keywords) {
-                    if (!jobName.toUpperCase(Locale.ROOT).contains(s.toUpperCase(Locale.ROOT))) {
-                        log.info("【{}】岗位名称不包含关键词--{}", jobName, s);
-                    } else {
-                        getJOB = true;
-                        break;
-                    }
-                }
-                if (!getJOB) {
-                    continue;
-                }
+        }
+        return shards;
+    }
 
-                if (blackJobs.stream().anyMatch(jobName::contains)) {
-                    log.info("黑名单岗位，跳过: {}",  jobName);
+    /**
+     * 在指定页面中搜索一个城市下的一个关键词并投递，串行模式和并行搜索线程共用
+     */
+    static void postJobByKeyword(Page page, BossSubmitPipeline pipeline, BossSearchWorker.Shard shard) {
+        String cityCode = shard.cityCode();
+        String keyword = shard.keyword();
+        String searchUrl = shard.searchUrl();
+        int postCount = 0;
+        // 使用 URLEncoder 对关键词进行编码
+        String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+
+        String url = searchUrl + "&query=" + encodedKeyword;
+        log.info("投递地址:{}", searchUrl + "&query=" + keyword);
+        // 监听岗位列表接口，列表加载时直接拿到结构化岗位数据
+        BossApiCapture apiCapture = new BossApiCapture(config.getApiRecordDir());
+        apiCapture.attach(page);
+        page.navigate(url);
+
+        // 1. 滚动到底部，加载所有岗位卡片
+        int count = loadJobCards(page, keyword, cityCode);
+        apiCapture.detach(page);
+
+        // 2. 回到页面顶部
+        page.evaluate("window.scrollTo(0, 0);");
+
+        // 3. 一次性读取所有卡片的列表信息
+        List<Job> cardJobs = BossExtractor.extractCards(page, count);
+        apiCapture.merge(cardJobs);
+        log.info("【{}】接口捕获岗位数:{}，列表卡片数:{}", keyword, apiCapture.size(), cardJobs.size());
+
+        // 4. 逐个遍历所有岗位
+        for (int i = 0; i < count; i++) {
+            // 推进已打开的详情页
+            pipeline.pump();
+            // 列表阶段过滤：能用列表数据判定的岗位不再点击
+            if (i < cardJobs.size()) {
+                Job card = cardJobs.get(i);
+                // 其他城市/关键词（或其他浏览器）已处理过的岗位直接跳过
+                if (!discoveredJobs.add(jobKey(card))) {
+                    duplicateJobs.incrementAndGet();
+                    log.debug("重复岗位，跳过：{} | {}", card.getJobName(), card.getCompanyName());
                     continue;
                 }
-                // 薪资(原始)
-                String jobSalaryRaw = safeText(detailBox, "span.job-salary");
-                String jobSalary = decodeSalary(jobSalaryRaw);
-                // 城市/经验/学历
-                List<String> tags = safeAllText(detailBox, "ul[class*='tag-list'] > li");
-                // 标签 (暂时不使用)
-                // List<String> jobLabels = safeAllText(detailBox, "ul[class*='job-label-list'] > li");
-                // 岗位描述
-                String jobDesc = safeText(detailBox, "p.desc");
-                // Boss姓名、活跃
-                String bossNameRaw = safeText(detailBox, "h2[class*='name']");
-                String[] bossInfo = splitBossName(bossNameRaw);
-                String bossName = bossInfo[0];
-                String bossActive = bossInfo[1];
-
-                // Boss公司/职位
-                String bossTitleRaw = safeText(detailBox, "div[class*='boss-info-attr']");
-                String[] bossTitleInfo = splitBossTitle(bossTitleRaw);
-
-                String bossCompany = bossTitleInfo[0];
-                if (config.getDeadStatus().stream().anyMatch(bossActive::contains)) {
-                    log.info("非活跃Boss，公司： {} 跳过: {}",  bossCompany, bossActive);
+                if (appliedJobs.contains(jobKey(card))) {
+                    log.info("已投递过，跳过：{} | {}", card.getJobName(), card.getCompanyName());
                     continue;
                 }
-                if (blackCompanies.contains(bossCompany)) {
-                    log.info("黑名单公司，跳过: {}", bossCompany);
+                if (jobDedup.isDuplicate(JobFingerprint.of(card))) {
                     continue;
                 }
-                String bossJobTitle = bossTitleInfo[1];
-                if (blackRecruiters.stream().anyMatch(bossJobTitle::contains)) {
-                    log.info("黑名单职位，跳过: {}", bossJobTitle);
+                BossFilter.Rule rule = filter.checkList(card);
+                if (rule != null) {
+                    log.info("{}，跳过：{} | {}", rule.getDesc(), card.getJobName(), card.getCompanyName());
                     continue;
                 }
+            }
 
-                // 创建Job对象
-                Job job = new Job();
-                job.setJobName(jobName);
-                job.setSalary(jobSalary);
-                job.setJobArea(String.join(", ", tags));
-                job.setCompanyName(bossCompany);
-                job.setRecruiter(bossName);
-                job.setJobInfo(jobDesc);
-                if (companyArea.length == 3) {
-                    job.setCompanyArea(companyArea[1].trim());
-                    job.setCompanyAreaDetail(companyArea[2].trim());
-                }
+            // 重新获取卡片，避免元素过期
+            long clickStart = System.currentTimeMillis();
+            Locator currentDom = page.locator(JOB_LIST_SELECTOR).nth(i);
+            currentDom.click();
+
+            // 等待详情面板切换到当前岗位，确认不了时不读取，以免把上一个岗位当成当前岗位再投一次
+            if (!waitForDetailPane(page, i < cardJobs.size() ? cardJobs.get(i) : null)) {
+                continue;
+            }
+            Job job = BossExtractor.extractDetail(page);
+            filter.recordDetailCost(System.currentTimeMillis() - clickStart);
+            // 公司地址取自列表卡片
+            if (i < cardJobs.size()) {
+                job.setCompanyArea(cardJobs.get(i).getCompanyArea());
+                job.setCompanyAreaDetail(cardJobs.get(i).getCompanyAreaDetail());
+                job.setCity(cardJobs.get(i).getCity());
+            }
 
-                // 输出
-                log.info("正在投递：第{}条 | 岗位名称：{} | 薪资：{} | 城市/经验/学历：{} | Boss姓名：{} | 活跃状态：{} | 公司：{} | 职位：{}", (i + 1), jobName, jobSalary, tags, bossName, bossActive, bossCompany, bossJobTitle);
-                resumeSubmission(page, keyword, job);
-                postCount++;
+            // 详情阶段过滤：HR活跃状态、HR职位等列表中缺失的字段在这里判定
+            BossFilter.Rule rule = filter.checkDetail(job);
+            if (rule != null) {
+                log.info("{}，跳过：{} | {} | {}", rule.getDesc(), job.getJobName(), job.getCompanyName(), job.getRecruiterActive());
+                continue;
             }
-            log.info("【{}】岗位已投递完毕！已投递岗位数量:{}", keyword, postCount);
+            String jobName = job.getJobName();
+            String jobSalary = job.getSalary();
+            String tags = job.getJobArea();
+            String bossName = job.getRecruiter();
+            String bossActive = job.getRecruiterActive();
+            String bossCompany = job.getCompanyName();
+            String bossJobTitle = job.getRecruiterTitle();
+
+            // 输出
+            log.info("正在投递：第{}条 | 岗位名称：{} | 薪资：{} | 城市/经验/学历：{} | Boss姓名：{} | 活跃状态：{} | 公司：{} | 职位：{}", (i + 1), jobName, jobSalary, tags, bossName, bossActive, bossCompany, bossJobTitle);
+            resumeSubmission(page, pipeline, keyword, job);
+            postCount++;
         }
+        // 列表遍历结束，不足一批的岗位立即发送AI筛选
+        if (aiBatchScreener != null) {
+            aiBatchScreener.flush();
+        }
+        pipeline.drain();
+        log.info("【{}】城市:{} 岗位已投递完毕！已投递岗位数量:{}", keyword, cityCode, postCount);
+    }
+
+    /**
+     * 岗位去重键：优先使用岗位ID，没有链接时使用公司+岗位名称
+     */
+    static String jobKey(Job job) {
+        String id = BossApiCapture.encryptJobId(job.getHref());
+        return isValidString(id) ? id : job.getCompanyName() + "|" + job.getJobName();
+    }
+
+    /**
+     * 点击卡片后等待右侧详情面板显示该岗位：优先比较面板"更多职位"链接中的岗位ID与卡片链接中的岗位ID，
+     * 卡片没有链接时才比较岗位名称（需完全一致且不为空）；同名岗位相邻时只有岗位ID能区分新旧面板
+     * 超时不抛异常：按岗位ID等待时返回 false（面板可能仍是上一个岗位），按名称等待时按当前面板内容继续
+     *
+     * @return 是否可以读取面板
+     */
+    private static boolean waitForDetailPane(Page page, Job card) {
+        String jobId = card == null ? "" : BossApiCapture.encryptJobId(card.getHref());
+        String jobName = card == null || card.getJobName() == null ? "" : card.getJobName().trim();
+        long start = System.currentTimeMillis();
+        boolean timedOut = false;
+        try {
+            page.waitForFunction(
+                    "([box, more, nameSelector, id, name]) => { const b = document.querySelector(box); if (!b) return false;" +
+                            " if (id) { const m = document.querySelector(more); const href = m ? (m.getAttribute('href') || '') : '';" +
+                            " return href.includes('/job_detail/' + id); }" +
+                            " if (!name) return true; const n = b.querySelector(nameSelector); if (!n) return false;" +
+                            " const text = n.innerText.trim(); return text.length > 0 && text === name; }",
+                    Arrays.asList(JOB_DETAIL_BOX, MORE_JOB_BTN, DETAIL_JOB_NAME, jobId, jobName),
+                    new Page.WaitForFunctionOptions().setTimeout(5000).setPollingInterval(100));
+        } catch (TimeoutError e) {
+            timedOut = true;
+            if (!jobId.isEmpty()) {
+                log.warn("详情面板未切换到岗位【{}】，跳过", jobName);
+            } else {
+                log.warn("详情面板未切换到岗位【{}】，按当前内容继续", jobName);
+            }
+        }
+        listWaits.record("详情面板切换", System.currentTimeMillis() - start, timedOut);
+        return !timedOut || jobId.isEmpty();
+    }
+
+    /**
+     * 滚动加载岗位卡片，直到卡片数量在空闲窗口内不再增长或达到上限
+     * 通过 waitForFunction 在页面内等待卡片数量变化，数量一变立即返回，不再固定睡眠
+     *
+     * @return 本次可遍历的卡片数量（不超过 maxJobCount）
+     */
+    private static int loadJobCards(Page page, String keyword, String cityCode) {
+        int maxCount = config.getMaxJobCount();
+        long start = System.currentTimeMillis();
+        int scrolls = 0;
+        int count = page.locator(JOB_LIST_SELECTOR).count();
+        while (count < maxCount) {
+            // 滑动到底部
+            page.evaluate("window.scrollTo(0, document.body.scrollHeight);");
+            scrolls++;
+            try {
+                // 卡片数量超过上次数量时返回新数量，否则继续轮询直到超时
+                Object current = page.waitForFunction(
+                        "([selector, last]) => { const n = document.querySelectorAll(selector).length; return n > last ? n : false; }",
+                        Arrays.asList(JOB_LIST_SELECTOR, count),
+                        new Page.WaitForFunctionOptions()
+                                .setTimeout(config.getScrollIdleMillis())
+                                .setPollingInterval(100))
+                        .jsonValue();
+                count = ((Number) current).intValue();
+            } catch (TimeoutError e) {
+                // 空闲窗口内没有新内容，加载完毕
+                break;
+            }
+        }
+        if (count > maxCount) {
+            count = maxCount;
+        }
+        log.info("【{}】岗位已全部加载，城市:{}，总数:{}，滚动{}次，用时{}ms", keyword, cityCode, count, scrolls,
+                System.currentTimeMillis() - start);
+        return count;
     }
 
     public static String decodeSalary(String text) {
-        Map<Character, Character> fontMap = new HashMap<>();
-        fontMap.put('', '0');
-        fontMap.put('', '1');
-        fontMap.put('', '2');
-        fontMap.put('', '3');
-        fontMap.put('', '4');
-        fontMap.put('', '5');
-        fontMap.put('', '6');
-        fontMap.put('', '7');
-        fontMap.put('', '8');
-        fontMap.put('', '9');
-        StringBuilder result = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            result.append(fontMap.getOrDefault(c, c));
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            result.append(SalaryParser.decodeDigit(text.charAt(i)));
         }
         return result.toString();
     }
@@ -363,18 +461,12 @@ public class Boss {
                 JobUtils.appendListParam("stage", config.getStage());
     }
 
-    private static void saveData(String path) {
-        try {
-            updateListData();
-            Map<String, Set<String>> data = new HashMap<>();
-            data.put("blackCompanies", blackCompanies);
-            data.put("blackRecruiters", blackRecruiters);
-            data.put("blackJobs", blackJobs);
-            String json = JSONUtils.customJsonFormat(data);
-            Files.write(Paths.get(path), json.getBytes());
-        } catch (IOException e) {
-            log.error("保存【{}】数据失败！", path);
-        }
+    /**
+     * 黑名单在发现时已经写入日志，这里只需合并成快照
+     */
+    private static void saveData() {
+        // 黑名单在 main 结束时关闭并合并快照
+        updateListData();
     }
 
     private static void updateListData() {
@@ -435,7 +527,7 @@ public class Boss {
                             }
                             companyName = companyName.replaceAll("\\.{3}", "");
                             if (companyName.matches(".*(\\p{IsHan}{2,}|[a-zA-Z]{4,}).*")) {
-                                blackCompanies.add(companyName);
+                                blacklist.add("blackCompanies", companyName);
                             }
                         }
                     }
@@ -459,222 +551,53 @@ public class Boss {
         log.info("黑名单公司数量：{}", blackCompanies.size());
     }
 
+    /**
+     * 读取黑名单快照并重放上次运行未合并的修改
+     */
     private static void loadData(String path) {
-        try {
-            String json = new String(Files.readAllBytes(Paths.get(path)));
-            parseJson(json);
-        } catch (IOException e) {
-            log.error("读取【{}】数据失败！", path);
-        }
+        blacklist = BlacklistStore.open(path, "blackCompanies", "blackRecruiters", "blackJobs");
+        blackCompanies = blacklist.get("blackCompanies");
+        blackRecruiters = blacklist.get("blackRecruiters");
+        blackJobs = blacklist.get("blackJobs");
+        compileMatchers();
     }
 
-    private static void parseJson(String json) {
-        JSONObject jsonObject = new JSONObject(json);
-        blackCompanies = jsonObject.getJSONArray("blackCompanies").toList().stream().map(Object::toString)
-                .collect(Collectors.toSet());
-        blackRecruiters = jsonObject.getJSONArray("blackRecruiters").toList().stream().map(Object::toString)
-                .collect(Collectors.toSet());
-        blackJobs = jsonObject.getJSONArray("blackJobs").toList().stream().map(Object::toString)
-                .collect(Collectors.toSet());
+    /**
+     * 将HR状态、搜索关键词编译为匹配器，之后每个岗位只需扫描一遍文本；黑名单的匹配器由 {@link BossFilter} 随名单变化重建
+     */
+    private static void compileMatchers() {
+        deadStatusMatcher = KeywordMatcher.compile(config.getDeadStatus(), false);
+        keywordMatcher = KeywordMatcher.compile(config.getKeywords(), true);
     }
 
-    @SneakyThrows
-    private static void resumeSubmission(com.microsoft.playwright.Page page, String keyword, Job job) {
-        PlaywrightUtil.sleep(2);
+    private static void resumeSubmission(Page page, BossSubmitPipeline pipeline, String keyword, Job job) {
         boolean deadHR = isDeadHR(page);
         // 筛选非活跃HR
         if (deadHR) {
             log.info("当前HR 非活跃，跳过公司：{}, 岗位:{}", job.getCompanyInfo(),  job.getJobName());
             return;
         }
-        // 1. 查找“查看更多信息”按钮（必须存在且新开页）
-        Locator moreInfoBtn = page.locator("a.more-job-btn");
-        if (moreInfoBtn.count() == 0) {
-            log.error("未找到“查看更多信息”按钮，跳过...");
-            return;
+        // 1. 详情链接取自“查看更多信息”按钮（必须存在且新开页）
+        String href = job.getHref();
+        if (!isValidString(href)) {
+            Locator moreInfoBtn = page.locator(MORE_JOB_BTN);
+            if (moreInfoBtn.count() == 0) {
+                log.error("未找到“查看更多信息”按钮，跳过...");
+                return;
+            }
+            href = moreInfoBtn.first().getAttribute("href");
         }
-        // 强制用js新开tab
-        String href = moreInfoBtn.first().getAttribute("href");
         if (href == null || !href.startsWith("/job_detail/")) {
             log.error("未获取到岗位详情链接，跳过...");
             return;
         }
-        String detailUrl = "https://www.zhipin.com" + href;
-
-        // 2. 新开详情页
-        com.microsoft.playwright.Page detailPage = page.context().newPage();
-        detailPage.navigate(detailUrl);
-        PlaywrightUtil.sleep(2); // 页面加载
-
-        // 3. 查找“立即沟通”按钮
-        Locator chatBtn = detailPage.locator("a.btn-startchat, a.op-btn-chat");
-        boolean foundChatBtn = false;
-        for (int i = 0; i < 5; i++) {
-            if (chatBtn.count() > 0 && (chatBtn.first().textContent().contains("立即沟通"))) {
-                foundChatBtn = true;
-                break;
-            }
-            PlaywrightUtil.sleep(2);
-        }
-        if (!foundChatBtn) {
-            log.warn("未找到立即沟通按钮，跳过岗位: {}", job.getJobName());
-            detailPage.close();
-            return;
-        }
-        chatBtn.first().click();
-        PlaywrightUtil.sleep(5);
-
-        //判斷是否出现弹窗，出现弹窗，关闭该弹窗，点击继续沟通
-        Locator dialogWrapper = detailPage.locator("div.dialog-container");
-        if (dialogWrapper != null) {
-            if (dialogWrapper.count() > 0) {
-                Locator locator = dialogWrapper.locator("//a[@ka='dialog_close']");
-                if (locator.count() > 0) {
-                    locator.click();
-                    // 查找当前页面继续沟通按钮
-                    Locator chatBtns = detailPage.locator("a.btn-startchat");
-                    Locator target = null;
-
-                    int total = chatBtns.count();
-                    if (total == 0) {
-                        // 未找到按钮，处理逻辑
-                        log.warn("未找到任何聊天按钮");
-                    } else if (total == 1) {
-                        target = chatBtns.first();
-                    } else {
-                        // 多个按钮，按文本过滤优先选择包含 "继续沟通" 的
-                        for (int i = 0; i < total; i++) {
-                            String txt = "";
-                            try {
-                                txt = chatBtns.nth(i).textContent();
-                            } catch (Exception ignore) {}
-                            if (txt != null && txt.contains("继续沟通")) {
-                                target = chatBtns.nth(i);
-                                break;
-                            }
-                        }
-                        if (target == null) {
-                            // 如果没找到明确的文本，降级选择第一个
-                            target = chatBtns.first();
-                        }
-                    }
-
-                    if (target != null) {
-                        target.click();
-                        PlaywrightUtil.sleep(5);
-                    }
-                }
-            }
-        }
-
-//         4. 等待聊天输入框
-        Locator inputLocator = detailPage.locator("div#chat-input.chat-input[contenteditable='true'], textarea.input-area");
-        boolean inputReady = false;
-        for (int i = 0; i < 10; i++) {
-            if (inputLocator.count() > 0 && inputLocator.first().isVisible()) {
-                inputReady = true;
-                break;
-            }
-            PlaywrightUtil.sleep(5);
-        }
-        if (!inputReady) {
-            log.warn("聊天输入框未出现，跳过: {}", job.getJobName());
-            detailPage.close();
-            return;
-        }
-
-        // 5. AI智能生成打招呼语
-        AiFilter aiResult = null;
-        if (config.getEnableAI()) {
-            String jd = job.getJobInfo();
-            if (jd != null && !jd.isEmpty()) {
-                aiResult = checkJob(keyword, job.getJobName(), jd);
-            }
-        }
-        List<String> configSayHiList = config.getSayHi();
-        // 将每条问候语填写后立即发送，且对 contenteditable 元素触发 input 事件
-        for (String configSayHi : configSayHiList) {
-            String sayHi = configSayHi.replaceAll("[\\r\\n]", "");
-            String message = (aiResult != null && aiResult.getResult() && isValidString(aiResult.getMessage()))
-                    ? aiResult.getMessage() : sayHi;
-
-            Locator input = inputLocator.first();
-            input.click();
-
-            Object tagObj = input.evaluate("el => el.tagName ? el.tagName.toLowerCase() : ''");
-            String tag = tagObj != null ? tagObj.toString() : "";
-
-            if ("textarea".equals(tag)) {
-                input.fill(message);
-            } else {
-                // 设置 innerText 并触发 input 事件，让页面能识别变化
-                input.evaluate("(el, msg) => { el.innerText = msg; el.focus(); el.dispatchEvent(new Event('input', { bubbles: true })); }", message);
-            }
-
-            // 每条消息发送后立即点击发送按钮
-            Locator sendBtnPer = detailPage.locator("div.send-message, button[type='send'].btn-send, button.btn-send");
-            if (sendBtnPer.count() > 0) {
-                sendBtnPer.first().click();
-                PlaywrightUtil.sleep(5); // 等待发送完成
-            } else {
-                log.warn("未找到发送按钮，跳过发送当前打招呼语");
-            }
-        }
-
-        // 7. 发送图片简历（可选）
-        boolean imgResume = false;
-        if (config.getSendImgResume()) {
-            try {
-                URL resourceUrl = Boss.class.getResource("/resume.jpg");
-                if (resourceUrl != null) {
-                    File imageFile = new File(resourceUrl.toURI());
-                    Locator fileInput = detailPage.locator("//div[@aria-label='发送图片']//input[@type='file']");
-                    if (fileInput.count() > 0) {
-                        fileInput.setInputFiles(imageFile.toPath());
-                        imgResume = true;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("发送图片简历失败: {}", e.getMessage());
-            }
-            PlaywrightUtil.sleep(5);
-        }
-
-        // 8. 点击发送按钮（div.send-message 或 button.btn-send）
-//        Locator sendBtn = detailPage.locator("div.send-message, button[type='send'].btn-send, button.btn-send");
-        boolean sendSuccess = false;
-//        if (sendBtn.count() > 0) {
-//            sendBtn.first().click();
-//            PlaywrightUtil.sleep(1);
-            sendSuccess = true;
-//        } else {
-//            log.warn("未找到发送按钮，自动跳过！岗位：{}", job.getJobName());
-//        }
-
-        log.info("投递完成 | 岗位：{} | 招呼语：{} | 图片简历：{}", job.getJobName(), configSayHiList, imgResume ? "已发送" : "未发送");
-
-        // 9. 关闭详情页，回到主页面
-        detailPage.close();
-        PlaywrightUtil.sleep(5);
-
-        // 10. 成功投递加入结果
-        if (sendSuccess) {
-            resultList.add(job);
-        }
-    }
-
-    private static boolean unFitMyCityArea(Job job) {
-        Set<String> cityArea = new HashSet<>(config.getCityArea());
-        if (cityArea.size() == 0) {
-            return false;
-        } else {
-            String companyArea = job.getCompanyArea();
-            if (companyArea == null) {
-                return false;
-            }
-            boolean contains = cityArea.contains(companyArea.trim());
-            return !contains;
+        // 2. JD 已在详情面板读到，立即开始异步AI筛选，与列表遍历、其他详情页并行
+        CompletableFuture<AiFilter> aiVerdict = null;
+        if (config.getEnableAI() && isValidString(job.getJobInfo())) {
+            aiVerdict = checkJobAsync(keyword, job.getJobName(), job.getJobInfo());
         }
+        // 3. 交给投递流水线：AI判定不匹配的岗位不打开详情页，其余在新开的详情页中沟通，列表继续遍历
+        pipeline.submit(keyword, job, homeUrl + href, aiVerdict);
     }
 
     public static boolean isValidString(String str) {
@@ -695,124 +618,29 @@ public class Boss {
      * 期望的最低薪资如果比岗位最高薪资还小，则不符合（薪资给的太少）
      * 期望的最高薪资如果比岗位最低薪资还小，则不符合(要求太高满足不了)
      */
-    private static boolean isSalaryNotExpected(String salary) {
-        try {
-            // 1. 如果没有期望薪资范围，直接返回 false，表示"薪资并非不符合预期"
-            List<Integer> expectedSalary = config.getExpectedSalary();
-            if (!hasExpectedSalary(expectedSalary)) {
-                return false;
-            }
-
-            // 2. 清理薪资文本（比如去掉 "·15薪"）
-            salary = removeYearBonusText(salary);
-
-            // 3. 如果薪资格式不符合预期（如缺少 "K" / "k"），直接返回 true，表示"薪资不符合预期"
-            if (!isSalaryInExpectedFormat(salary)) {
-                return true;
-            }
-
-            // 4. 进一步清理薪资文本，比如去除 "K"、"k"、"·" 等
-            salary = cleanSalaryText(salary);
-
-            // 5. 判断是 "月薪" 还是 "日薪"
-            String jobType = detectJobType(salary);
-            salary = removeDayUnitIfNeeded(salary); // 如果是按天，则去除 "元/天"
-
-            // 6. 解析薪资范围并检查是否超出预期
-            Integer[] jobSalaryRange = parseSalaryRange(salary);
-            return isSalaryOutOfRange(jobSalaryRange,
-                    getMinimumSalary(expectedSalary),
-                    getMaximumSalary(expectedSalary),
-                    jobType);
-
-        } catch (Exception e) {
-            log.error("岗位薪资获取异常！薪资文本【{}】,异常信息【{}】", salary, e.getMessage(), e);
-            // 出错时，您可根据业务需求决定返回 true 或 false
-            // 这里假设出错时无法判断，视为不满足预期 => 返回 true
-            return true;
-        }
-    }
-
-    /**
-     * 是否存在有效的期望薪资范围
-     */
-    private static boolean hasExpectedSalary(List<Integer> expectedSalary) {
-        return expectedSalary != null && !expectedSalary.isEmpty();
-    }
-
-    /**
-     * 去掉年终奖信息，如 "·15薪"、"·13薪"。
-     */
-    private static String removeYearBonusText(String salary) {
-        if (salary.contains("薪")) {
-            // 使用正则去除 "·任意数字薪"
-            return salary.replaceAll("·\\d+薪", "");
-        }
-        return salary;
-    }
-
-    /**
-     * 判断是否是按天计薪，如发现 "元/天" 则认为是日薪
-     */
-    private static String detectJobType(String salary) {
-        if (salary.contains("元/天")) {
-            return "day";
-        }
-        return "mouth";
-    }
-
-    /**
-     * 如果是日薪，则去除 "元/天"
-     */
-    private static String removeDayUnitIfNeeded(String salary) {
-        if (salary.contains("元/天")) {
-            return salary.replaceAll("元/天", "");
-        }
-        return salary;
-    }
-
-    private static Integer getMinimumSalary(List<Integer> expectedSalary) {
-        return expectedSalary != null && !expectedSalary.isEmpty() ? expectedSalary.get(0) : null;
-    }
-
-    private static Integer getMaximumSalary(List<Integer> expectedSalary) {
-        return expectedSalary != null && expectedSalary.size() > 1 ? expectedSalary.get(1) : null;
-    }
-
-    private static boolean isSalaryInExpectedFormat(String salaryText) {
-        return salaryText.contains("K") || salaryText.contains("k") || salaryText.contains("元/天");
-    }
-
-    private static String cleanSalaryText(String salaryText) {
-        salaryText = salaryText.replace("K", "").replace("k", "");
-        int dotIndex = salaryText.indexOf('·');
-        if (dotIndex != -1) {
-            salaryText = salaryText.substring(0, dotIndex);
+    static boolean isSalaryNotExpected(String salary) {
+        // 1. 如果没有期望薪资范围，直接返回 false，表示"薪资并非不符合预期"
+        List<Integer> expectedSalary = config.getExpectedSalary();
+        if (expectedSalary == null || expectedSalary.isEmpty()) {
+            return false;
         }
-        return salaryText;
-    }
 
-    private static boolean isSalaryOutOfRange(Integer[] jobSalary, Integer miniSalary, Integer maxSalary,
-                                              String jobType) {
-        if (jobSalary == null) {
+        // 2. 解析薪资（兼容 "·15薪"、"元/天"、字体反爬数字等），无法解析（如"面议"）视为不符合预期
+        SalaryRange range = SalaryParser.parse(salary);
+        if (range == null) {
+            log.debug("薪资无法解析：{}", salary);
             return true;
         }
-        if (miniSalary == null) {
-            return false;
-        }
-        if (Objects.equals("day", jobType)) {
-            // 期望薪资转为平均每日的工资
-            maxSalary = BigDecimal.valueOf(maxSalary).multiply(BigDecimal.valueOf(1000))
-                    .divide(BigDecimal.valueOf(21.75), 0, RoundingMode.HALF_UP).intValue();
-            miniSalary = BigDecimal.valueOf(miniSalary).multiply(BigDecimal.valueOf(1000))
-                    .divide(BigDecimal.valueOf(21.75), 0, RoundingMode.HALF_UP).intValue();
-        }
-        // 如果职位薪资下限低于期望的最低薪资，返回不符合
-        if (jobSalary[1] < miniSalary) {
+
+        // 3. 统一折算为月薪（元）后与期望薪资（K）比较
+        int miniSalary = expectedSalary.get(0) * 1000;
+        Integer maxSalary = expectedSalary.size() > 1 ? expectedSalary.get(1) * 1000 : null;
+        // 如果职位薪资上限低于期望的最低薪资，返回不符合
+        if (range.monthlyMax() < miniSalary) {
             return true;
         }
-        // 如果职位薪资上限高于期望的最高薪资，返回不符合
-        return maxSalary != null && jobSalary[0] > maxSalary;
+        // 如果职位薪资下限高于期望的最高薪资，返回不符合
+        return maxSalary != null && range.monthlyMin() > maxSalary;
     }
 
     private static void RandomWait() {
@@ -840,7 +668,7 @@ public class Boss {
                 String activeTimeText = activeTimeLocator.textContent();
                 log.info("HR活跃状态：{}：{}", getCompanyAndHR(page), activeTimeText);
                 // 如果 HR 活跃状态符合预期，则返回 true
-                return containsDeadStatus(activeTimeText, config.getDeadStatus());
+                return containsDeadStatus(activeTimeText);
             }
         } catch (Exception e) {
             log.info("没有找到【{}】的活跃状态, 默认此岗位将会投递...", getCompanyAndHR(page));
@@ -848,13 +676,8 @@ public class Boss {
         return false;
     }
 
-    public static boolean containsDeadStatus(String activeTimeText, List<String> deadStatus) {
-        for (String status : deadStatus) {
-            if (activeTimeText.contains(status)) {
-                return true;// 一旦找到包含的值，立即返回 true
-            }
-        }
-        return false;// 如果没有找到，返回 false
+    public static boolean containsDeadStatus(String activeTimeText) {
+        return deadStatusMatcher.containsAny(activeTimeText);
     }
 
     private static String getCompanyAndHR(com.microsoft.playwright.Page page) {
@@ -870,23 +693,119 @@ public class Boss {
         // 该方法已废弃，在playwright中直接使用page.close()
     }
 
-    private static AiFilter checkJob(String keyword, String jobName, String jd) {
-        AiConfig aiConfig = AiConfig.init();
-        String requestMessage = String.format(aiConfig.getPrompt(), aiConfig.getIntroduce(), keyword, jobName, jd,
-                config.getSayHi());
-        String result = AiService.sendRequest(requestMessage);
-        return result.contains("false") ? new AiFilter(false) : new AiFilter(true, result);
+    /**
+     * 异步AI筛选：本地预筛能确定结果或命中缓存时直接完成，否则发起异步请求（开启批量时合并到批次中），不阻塞调用线程
+     */
+    static CompletableFuture<AiFilter> checkJobAsync(String keyword, String jobName, String jd) {
+        AiConfig aiConfig = AiConfig.get();
+        JdRelevanceScorer scorer = relevanceScorer(aiConfig);
+        if (scorer != null) {
+            JdRelevanceScorer.Band band = scorer.classify(keyword, jobName, jd);
+            if (band == JdRelevanceScorer.Band.REJECT) {
+                log.info("本地预筛相关度过低，跳过：{}", jobName);
+                return CompletableFuture.completedFuture(new AiFilter(false));
+            }
+            if (band == JdRelevanceScorer.Band.ACCEPT) {
+                log.info("本地预筛相关度高，使用默认招呼语：{}", jobName);
+                // 不带招呼语，由投递流程按配置的 sayHi 发送
+                return CompletableFuture.completedFuture(new AiFilter(true, null));
+            }
+        }
+        String cacheKey = AiVerdictCache.key(jd, keyword, jobName, aiPrompts().version());
+        AiFilter cached = aiCache().get(cacheKey);
+        if (cached != null) {
+            log.info("AI筛选命中缓存：{} | {}", jobName, cached.getResult() ? "匹配" : "不匹配");
+            return CompletableFuture.completedFuture(cached);
+        }
+        AiBatchScreener batchScreener = aiBatchScreener();
+        CompletableFuture<AiFilter> verdict = batchScreener != null
+                ? batchScreener.submit(keyword, jobName, jd)
+                : requestJob(keyword, jobName, jd);
+        return verdict.thenApply(aiFilter -> {
+            // 未能筛选或请求失败（匹配但没有招呼语）不缓存，下次重新判断
+            if (aiFilter.isScreened() && (!aiFilter.getResult() || isValidString(aiFilter.getMessage()))) {
+                aiCache().put(cacheKey, aiFilter);
+            }
+            return aiFilter;
+        });
     }
 
-    private static Integer[] parseSalaryRange(String salaryText) {
-        try {
-            return Arrays.stream(salaryText.split("-")).map(s -> s.replaceAll("[^0-9]", "")) // 去除非数字字符
-                    .map(Integer::parseInt) // 转换为Integer
-                    .toArray(Integer[]::new); // 转换为Integer数组
-        } catch (Exception e) {
-            log.error("薪资解析异常！{}", e.getMessage(), e);
+    /**
+     * 单个岗位的AI筛选请求
+     */
+    private static CompletableFuture<AiFilter> requestJob(String keyword, String jobName, String jd) {
+        AiConfig aiConfig = AiConfig.get();
+        AiMessages requestMessage = aiPrompts().single(keyword, jobName, AiPromptBuilder.fitJd(jd, aiConfig.getJdTokenBudget()));
+        CompletableFuture<String> response = aiConfig.getStream()
+                ? AiService.sendStreamRequestAsync(requestMessage, (delta, text) -> !isRejectAnswer(text))
+                : AiService.sendRequestAsync(requestMessage);
+        return response.thenApply(result -> {
+            if (result.isEmpty()) {
+                // 请求失败或超出额度：视为未筛选，默认不投递，以免额度用尽后剩余岗位全部未经筛选就投递
+                boolean submit = aiConfig.getSubmitUnscreened();
+                log.warn("AI未返回结果，{}：{}", submit ? "按默认招呼语投递" : "跳过", jobName);
+                return AiFilter.unscreened(submit);
+            }
+            return result.contains("false") ? new AiFilter(false) : new AiFilter(true, result);
+        });
+    }
+
+    /**
+     * 流式返回的开头已经是 false（忽略前导空白、引号等符号），无需等待剩余内容
+     */
+    private static boolean isRejectAnswer(String text) {
+        int start = 0;
+        while (start < text.length() && !Character.isLetterOrDigit(text.charAt(start))) {
+            start++;
+        }
+        return text.regionMatches(true, start, "false", 0, 5);
+    }
+
+    /**
+     * 提示词在第一次使用时编译，之后每个岗位只渲染用户消息
+     */
+    private static synchronized AiPrompts aiPrompts() {
+        if (aiPrompts == null) {
+            aiPrompts = AiPrompts.compile(AiConfig.get(), String.valueOf(config.getSayHi()));
+        }
+        return aiPrompts;
+    }
+
+    private static synchronized AiVerdictCache aiCache() {
+        if (aiVerdictCache == null) {
+            AiConfig aiConfig = AiConfig.get();
+            aiVerdictCache = new AiVerdictCache(aiCachePath, aiConfig.getCacheDays(), aiConfig.getCacheMaxEntries());
+        }
+        return aiVerdictCache;
+    }
+
+    /**
+     * 本地相关度预筛，未配置阈值时返回 null
+     */
+    private static synchronized JdRelevanceScorer relevanceScorer(AiConfig aiConfig) {
+        if (relevanceScorer == null) {
+            JdRelevanceScorer scorer = new JdRelevanceScorer(aiConfig.getIntroduce(),
+                    aiConfig.getPrescreenRejectBelow(), aiConfig.getPrescreenAcceptAbove());
+            if (!scorer.isEnabled()) {
+                return null;
+            }
+            relevanceScorer = scorer;
+        }
+        return relevanceScorer;
+    }
+
+    /**
+     * 批量筛选器，batchSize 为 1 时返回 null
+     */
+    private static synchronized AiBatchScreener aiBatchScreener() {
+        if (aiBatchScreener == null) {
+            AiConfig aiConfig = AiConfig.get();
+            if (aiConfig.getBatchSize() <= 1) {
+                return null;
+            }
+            aiBatchScreener = new AiBatchScreener(aiConfig, aiPrompts(), Boss::requestJob);
         }
-        return null;
+        return aiBatchScreener;
     }
 
     private static boolean isLimit(com.microsoft.playwright.Page page) {
@@ -0,0 +1,327 @@
+package boss;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.LoadState;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.Job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Boss直聘搜索接口响应捕获
+ * 岗位列表加载时浏览器会请求 wapi 接口拿到 JSON，这里直接解析响应生成 Job，无需点击卡片
+ */
+public class BossApiCapture {
+    private static final Logger log = LoggerFactory.getLogger(BossApiCapture.class);
+
+    /**
+     * 岗位列表接口
+     */
+    static final String JOB_LIST_API = "/wapi/zpgeek/search/joblist.json";
+
+    /**
+     * 按加密岗位ID保存捕获到的岗位，保持接口返回顺序
+     */
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    /**
+     * 录制接口响应的目录，为空则不录制
+     */
+    private final String recordDir;
+
+    private int recordIndex = 0;
+
+    private final Consumer<Response> listener = this::onResponse;
+
+    public BossApiCapture(String recordDir) {
+        this.recordDir = recordDir;
+    }
+
+    /**
+     * 监听页面的接口响应
+     */
+    public void attach(Page page) {
+        page.onResponse(listener);
+    }
+
+    /**
+     * 停止监听
+     */
+    public void detach(Page page) {
+        page.offResponse(listener);
+    }
+
+    private void onResponse(Response response) {
+        if (!response.url().contains(JOB_LIST_API) || response.status() != 200) {
+            return;
+        }
+        try {
+            String body = response.text();
+            record(body);
+            for (Job job : parse(body)) {
+                jobs.put(encryptJobId(job.getHref()), job);
+            }
+        } catch (Exception e) {
+            log.warn("解析岗位列表接口响应失败: {}", e.getMessage());
+        }
+    }
+
+    private void record(String body) throws IOException {
+        if (recordDir == null || recordDir.isBlank()) {
+            return;
+        }
+        Path dir = Paths.get(recordDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format("joblist-%d-%03d.json", System.currentTimeMillis(), ++recordIndex));
+        Files.writeString(file, body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 已捕获的岗位数量
+     */
+    public int size() {
+        return jobs.size();
+    }
+
+    /**
+     * 按岗位链接查找捕获到的岗位
+     */
+    public Job find(String href) {
+        String id = encryptJobId(href);
+        return id.isEmpty() ? null : jobs.get(id);
+    }
+
+    /**
+     * 取出全部已捕获岗位并清空，切换关键词/城市前调用
+     */
+    public List<Job> drain() {
+        List<Job> result = new ArrayList<>(jobs.values());
+        jobs.clear();
+        return result;
+    }
+
+    /**
+     * 用接口数据补全列表卡片中缺失的字段（Boss姓名、职位、活跃状态、公司标签等）
+     */
+    public void merge(List<Job> cards) {
+        for (Job card : cards) {
+            Job api = find(card.getHref());
+            if (api == null) {
+                continue;
+            }
+            if (isBlank(card.getJobName())) card.setJobName(api.getJobName());
+            if (isBlank(card.getSalary())) card.setSalary(api.getSalary());
+            if (isBlank(card.getCompanyName())) card.setCompanyName(api.getCompanyName());
+            if (isBlank(card.getCompanyArea())) card.setCompanyArea(api.getCompanyArea());
+            if (isBlank(card.getCompanyAreaDetail())) card.setCompanyAreaDetail(api.getCompanyAreaDetail());
+            if (isBlank(card.getCity())) card.setCity(api.getCity());
+            card.setCompanyTag(api.getCompanyTag());
+            card.setRecruiter(api.getRecruiter());
+            card.setRecruiterTitle(api.getRecruiterTitle());
+            card.setRecruiterActive(api.getRecruiterActive());
+        }
+    }
+
+    /**
+     * 解析岗位列表接口的响应体
+     */
+    public static List<Job> parse(String body) {
+        List<Job> result = new ArrayList<>();
+        JSONObject root = JSON.parseObject(body);
+        if (root == null || root.getIntValue("code") != 0) {
+            return result;
+        }
+        JSONObject zpData = root.getJSONObject("zpData");
+        JSONArray jobList = zpData == null ? null : zpData.getJSONArray("jobList");
+        if (jobList == null) {
+            return result;
+        }
+        for (int i = 0; i < jobList.size(); i++) {
+            JSONObject item = jobList.getJSONObject(i);
+            String encryptJobId = item.getString("encryptJobId");
+            if (isBlank(encryptJobId)) {
+                continue;
+            }
+            Job job = new Job();
+            job.setHref("/job_detail/" + encryptJobId + ".html");
+            job.setJobName(item.getString("jobName"));
+            job.setSalary(Boss.decodeSalary(nullToEmpty(item.getString("salaryDesc"))));
+            job.setJobArea(join(", ", item.getString("cityName"), item.getString("jobExperience"), item.getString("jobDegree")));
+            job.setCompanyName(item.getString("brandName"));
+            job.setCompanyTag(join("·", item.getString("brandIndustry"), item.getString("brandStageName"), item.getString("brandScaleName")));
+            job.setCompanyArea(item.getString("areaDistrict"));
+            job.setCompanyAreaDetail(item.getString("businessDistrict"));
+            job.setCity(item.getString("cityName"));
+            job.setRecruiter(item.getString("bossName"));
+            job.setRecruiterTitle(item.getString("bossTitle"));
+            // 列表接口只有在线标记，活跃时间描述仅部分版本返回
+            String activeTime = item.getString("activeTimeDesc");
+            job.setRecruiterActive(!isBlank(activeTime) ? activeTime : (item.getBooleanValue("bossOnline") ? "在线" : ""));
+            result.add(job);
+        }
+        return result;
+    }
+
+    /**
+     * 从 /job_detail/xxx.html?lid=... 形式的链接中取出加密岗位ID
+     */
+    public static String encryptJobId(String href) {
+        if (href == null) {
+            return "";
+        }
+        int start = href.indexOf("/job_detail/");
+        if (start < 0) {
+            return "";
+        }
+        start += "/job_detail/".length();
+        int end = href.indexOf(".html", start);
+        return end < 0 ? href.substring(start) : href.substring(start, end);
+    }
+
+    private static String join(String delimiter, String... values) {
+        return Stream.of(values).filter(v -> !isBlank(v)).collect(Collectors.joining(delimiter));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 本地回放：启动一个替身服务，按顺序回放录制好的岗位列表响应，并用浏览器加载验证捕获结果
+     * 用法：传入录制目录（BossConfig.apiRecordDir 录下的 joblist-*.json），可选第二个参数为端口
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("用法: BossApiCapture <录制目录> [端口]");
+            return;
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 18080;
+        HttpServer server = startReplayServer(Paths.get(args[0]), port);
+        try (Playwright playwright = Playwright.create();
+             Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true))) {
+            Page page = browser.newPage();
+            BossApiCapture capture = new BossApiCapture(null);
+            capture.attach(page);
+            page.navigate("http://127.0.0.1:" + port + "/web/geek/job");
+            page.waitForLoadState(LoadState.NETWORKIDLE);
+            List<Job> captured = capture.drain();
+            System.out.printf("捕获岗位 %d 个，页面卡片 %d 个%n", captured.size(), page.locator(Locators.JOB_LIST_SELECTOR).count());
+            captured.forEach(job -> System.out.printf("%s | %s | %s | %s · %s | %s%n", job.getHref(), job.getJobName(),
+                    job.getSalary(), job.getRecruiter(), job.getRecruiterTitle(), job.getCompanyName()));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * 回放服务：/wapi/zpgeek/search/joblist.json?page=N 返回第N个录制文件，/web/geek/job 返回逐页拉取并渲染卡片的页面
+     */
+    static HttpServer startReplayServer(Path recordDir, int port) throws IOException {
+        List<Path> payloads;
+        try (Stream<Path> files = Files.list(recordDir)) {
+            payloads = files.filter(p -> p.getFileName().toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(JOB_LIST_API, exchange -> {
+            int page = queryInt(exchange, "page", 1);
+            String body = page >= 1 && page <= payloads.size()
+                    ? Files.readString(payloads.get(page - 1), StandardCharsets.UTF_8)
+                    : "{\"code\":0,\"message\":\"Success\",\"zpData\":{\"hasMore\":false,\"jobList\":[]}}";
+            write(exchange, "application/json;charset=utf-8", body);
+        });
+        server.createContext("/web/geek/job", exchange -> write(exchange, "text/html;charset=utf-8", REPLAY_PAGE));
+        server.start();
+        log.info("回放服务已启动: http://127.0.0.1:{}，录制文件 {} 个", port, payloads.size());
+        return server;
+    }
+
+    private static int queryInt(HttpExchange exchange, String name, int defaultValue) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] kv = pair.split("=", 2);
+                if (kv.length == 2 && kv[0].equals(name)) {
+                    try {
+                        return Integer.parseInt(kv[1]);
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static void write(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * 替身搜索页：按页拉取接口直到 hasMore 为 false，并渲染成与线上结构一致的岗位卡片
+     */
+    private static final String REPLAY_PAGE = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>replay</title></head>
+            <body><div class="job-list-container"><ul class="rec-job-list"></ul></div>
+            <script>
+            (async () => {
+                const list = document.querySelector('ul.rec-job-list');
+                for (let page = 1; ; page++) {
+                    const resp = await fetch('/wapi/zpgeek/search/joblist.json?page=' + page);
+                    const data = (await resp.json()).zpData || {};
+                    for (const job of (data.jobList || [])) {
+                        const li = document.createElement('li');
+                        li.className = 'job-card-box';
+                        li.innerHTML = '<a class="job-name"></a><span class="job-salary"></span>'
+                            + '<ul class="tag-list"></ul><span class="boss-name"></span><span class="company-location"></span>';
+                        const link = li.querySelector('a.job-name');
+                        link.textContent = job.jobName || '';
+                        link.setAttribute('href', '/job_detail/' + job.encryptJobId + '.html');
+                        li.querySelector('span.job-salary').textContent = job.salaryDesc || '';
+                        li.querySelector('span.boss-name').textContent = job.brandName || '';
+                        li.querySelector('span.company-location').textContent =
+                            [job.cityName, job.areaDistrict, job.businessDistrict].filter(Boolean).join('·');
+                        for (const label of (job.jobLabels || [])) {
+                            const tag = document.createElement('li');
+                            tag.textContent = label;
+                            li.querySelector('ul.tag-list').appendChild(tag);
+                        }
+                        list.appendChild(li);
+                    }
+                    if (!data.hasMore) break;
+                }
+            })();
+            </script></body></html>
+            """;
+}
@@ -1,14 +1,10 @@
 package boss;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import utils.JobUtils;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,44 +112,49 @@ public class BossConfig {
      */
     private List<String> deadStatus;
 
+    /**
+     * 每个关键词最多加载的岗位卡片数量
+     */
+    private Integer maxJobCount;
+
+    /**
+     * 滚动加载时等待新卡片出现的空闲窗口（毫秒），超时即认为已加载完毕
+     */
+    private Integer scrollIdleMillis;
+
+    /**
+     * 录制岗位列表接口响应的目录，为空则不录制（用于本地回放调试）
+     */
+    private String apiRecordDir;
+
+    /**
+     * 同时进行投递沟通的详情页数量上限
+     */
+    private Integer maxDetailPages;
+
+    /**
+     * 商圈等参考数据的缓存有效期（天），过期后先使用旧数据并在后台刷新
+     */
+    private Integer refCacheDays;
+
+    /**
+     * 并行搜索的浏览器数量，城市×关键词分片后由多个浏览器同时处理，1 为串行
+     */
+    private Integer searchParallelism;
+
     /**
      * 城市代码映射缓存
      */
     private static Map<String, String> cityCodeMap = new HashMap<>();
 
     /**
-     * 从JSON文件加载城市代码
+     * 加载城市代码，优先读取由JSON文件生成的缓存
      */
-    @SuppressWarnings("unchecked")
     private static void loadCityCodeFromJson() {
         if (!cityCodeMap.isEmpty()) {
             return;
         }
-
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            File jsonFile = new File("src/main/java/boss/city-industry-code.json");
-
-            if (!jsonFile.exists()) {
-                log.error("城市代码JSON文件不存在: {}", jsonFile.getAbsolutePath());
-                return;
-            }
-
-            // 读取JSON文件
-            Map<String, Object> data = mapper.readValue(jsonFile, new TypeReference<>() {});
-            List<Map<String, Object>> cityList = (List<Map<String, Object>>) data.get("city");
-
-            if (cityList != null) {
-                for (Map<String, Object> city : cityList) {
-                    String name = (String) city.get("name");
-                    Object codeObj = city.get("code");
-                    String code = codeObj != null ? codeObj.toString() : "";
-                    cityCodeMap.put(name, code);
-                }
-            }
-        } catch (IOException e) {
-            log.error("加载城市代码失败: {}", e.getMessage(), e);
-        }
+        cityCodeMap = BossRefData.cityCodes();
     }
 
     /**
@@ -168,6 +169,7 @@ public class BossConfig {
     @SneakyThrows
     public static BossConfig init() {
         BossConfig config = JobUtils.getConfig(BossConfig.class);
+        BossRefData.setTtlDays(config.getRefCacheDays());
 
         // 加载城市代码JSON数据
         loadCityCodeFromJson();
@@ -210,6 +212,20 @@ public class BossConfig {
         config.setStage(config.getStage().stream().map(value -> BossEnum.Financing.forValue(value).getCode()).collect(Collectors.toList()));
         // 转换行业
         config.setIndustry(config.getIndustry().stream().map(value -> BossEnum.Industry.forValue(value).getCode()).collect(Collectors.toList()));
+        // 滚动加载参数默认值
+        if (config.getMaxJobCount() == null || config.getMaxJobCount() <= 0) {
+            config.setMaxJobCount(300);
+        }
+        if (config.getScrollIdleMillis() == null || config.getScrollIdleMillis() <= 0) {
+            config.setScrollIdleMillis(2000);
+        }
+        // 投递流水线并发详情页默认值
+        if (config.getMaxDetailPages() == null || config.getMaxDetailPages() <= 0) {
+            config.setMaxDetailPages(3);
+        }
+        if (config.getSearchParallelism() == null || config.getSearchParallelism() <= 0) {
+            config.setSearchParallelism(1);
+        }
 
         return config;
     }
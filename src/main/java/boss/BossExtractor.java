@@ -0,0 +1,252 @@
+package boss;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.Job;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static boss.Locators.*;
+
+/**
+ * Boss直聘岗位信息批量提取
+ * 一次 page.evaluate 取回所有字段，避免逐个字段 locator 往返；evaluate 失败时退回逐字段读取
+ */
+public class BossExtractor {
+    private static final Logger log = LoggerFactory.getLogger(BossExtractor.class);
+
+    /**
+     * 批量读取岗位卡片，返回每张卡片的字段
+     */
+    private static final String CARD_SCRIPT = """
+            s => Array.from(document.querySelectorAll(s.card)).map(card => {
+                const text = sel => { const n = card.querySelector(sel); return n ? n.innerText.trim() : ''; };
+                const link = card.querySelector(s.name);
+                return {
+                    jobName: text(s.name),
+                    salary: text(s.salary),
+                    tags: Array.from(card.querySelectorAll(s.tags)).map(n => n.innerText.trim()),
+                    company: text(s.company),
+                    location: text(s.location),
+                    href: link ? (link.getAttribute('href') || '') : ''
+                };
+            })
+            """;
+
+    /**
+     * 一次读取详情区块的全部字段
+     */
+    private static final String DETAIL_SCRIPT = """
+            s => {
+                const box = document.querySelector(s.box);
+                if (!box) return null;
+                const text = sel => { const n = box.querySelector(sel); return n ? n.innerText.trim() : ''; };
+                const more = document.querySelector(s.more);
+                return {
+                    jobName: text(s.name),
+                    salary: text(s.salary),
+                    tags: Array.from(box.querySelectorAll(s.tags)).map(n => n.innerText.trim()),
+                    desc: text(s.desc),
+                    bossName: text(s.bossName),
+                    bossTitle: text(s.bossTitle),
+                    href: more ? (more.getAttribute('href') || '') : ''
+                };
+            }
+            """;
+
+    private static final Map<String, String> CARD_SELECTORS = Map.of(
+            "card", JOB_LIST_SELECTOR,
+            "name", JOB_NAME,
+            "salary", JOB_SALARY,
+            "tags", TAG_LIST,
+            "company", COMPANY_NAME,
+            "location", JOB_AREA);
+
+    private static final Map<String, String> DETAIL_SELECTORS = Map.of(
+            "box", JOB_DETAIL_BOX,
+            "more", MORE_JOB_BTN,
+            "name", DETAIL_JOB_NAME,
+            "salary", JOB_SALARY,
+            "tags", DETAIL_TAG_LIST,
+            "desc", DETAIL_DESC,
+            "bossName", DETAIL_BOSS_NAME,
+            "bossTitle", DETAIL_BOSS_TITLE);
+
+    /**
+     * 一次往返读取列表中前 limit 张卡片
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Job> extractCards(Page page, int limit) {
+        try {
+            List<Map<String, Object>> rows = (List<Map<String, Object>>) page.evaluate(CARD_SCRIPT, CARD_SELECTORS);
+            List<Job> jobs = new ArrayList<>(Math.min(rows.size(), limit));
+            for (int i = 0; i < rows.size() && i < limit; i++) {
+                Map<String, Object> row = rows.get(i);
+                Job job = new Job();
+                job.setJobName(str(row.get("jobName")));
+                job.setSalary(Boss.decodeSalary(str(row.get("salary"))));
+                job.setJobArea(String.join(", ", (List<String>) row.getOrDefault("tags", Collections.emptyList())));
+                job.setCompanyName(str(row.get("company")));
+                job.setHref(str(row.get("href")));
+                applyLocation(job, str(row.get("location")));
+                jobs.add(job);
+            }
+            return jobs;
+        } catch (Exception e) {
+            log.warn("批量读取岗位卡片失败，改为逐个读取: {}", e.getMessage());
+            return extractCardsByLocator(page, limit);
+        }
+    }
+
+    /**
+     * 逐字段读取岗位卡片（备用）
+     */
+    public static List<Job> extractCardsByLocator(Page page, int limit) {
+        Locator cards = page.locator(JOB_LIST_SELECTOR);
+        int count = Math.min(cards.count(), limit);
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Locator card = cards.nth(i);
+            Job job = new Job();
+            job.setJobName(Boss.safeText(card, JOB_NAME));
+            job.setSalary(Boss.decodeSalary(Boss.safeText(card, JOB_SALARY)));
+            job.setJobArea(String.join(", ", Boss.safeAllText(card, TAG_LIST)));
+            job.setCompanyName(Boss.safeText(card, COMPANY_NAME));
+            Locator link = card.locator(JOB_NAME);
+            job.setHref(link.count() > 0 ? str(link.first().getAttribute("href")) : "");
+            applyLocation(job, Boss.safeText(card, JOB_AREA));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /**
+     * 一次往返读取详情区块，返回的 Job 已填好岗位、薪资、描述与 Boss 信息
+     */
+    @SuppressWarnings("unchecked")
+    public static Job extractDetail(Page page) {
+        try {
+            Map<String, Object> row = (Map<String, Object>) page.evaluate(DETAIL_SCRIPT, DETAIL_SELECTORS);
+            if (row != null) {
+                return toDetailJob(str(row.get("jobName")), str(row.get("salary")),
+                        (List<String>) row.getOrDefault("tags", Collections.emptyList()), str(row.get("desc")),
+                        str(row.get("bossName")), str(row.get("bossTitle")), str(row.get("href")));
+            }
+            log.warn("未找到岗位详情区块，改为逐个读取");
+        } catch (Exception e) {
+            log.warn("批量读取岗位详情失败，改为逐个读取: {}", e.getMessage());
+        }
+        return extractDetailByLocator(page);
+    }
+
+    /**
+     * 逐字段读取详情区块（备用）
+     */
+    public static Job extractDetailByLocator(Page page) {
+        Locator detailBox = page.locator(JOB_DETAIL_BOX);
+        Locator more = page.locator(MORE_JOB_BTN);
+        String href = more.count() > 0 ? str(more.first().getAttribute("href")) : "";
+        return toDetailJob(Boss.safeText(detailBox, DETAIL_JOB_NAME), Boss.safeText(detailBox, JOB_SALARY),
+                Boss.safeAllText(detailBox, DETAIL_TAG_LIST), Boss.safeText(detailBox, DETAIL_DESC),
+                Boss.safeText(detailBox, DETAIL_BOSS_NAME), Boss.safeText(detailBox, DETAIL_BOSS_TITLE), href);
+    }
+
+    private static Job toDetailJob(String jobName, String salary, List<String> tags, String desc,
+                                   String bossNameRaw, String bossTitleRaw, String href) {
+        String[] bossInfo = Boss.splitBossName(bossNameRaw);
+        String[] bossTitleInfo = Boss.splitBossTitle(bossTitleRaw);
+        Job job = new Job();
+        job.setJobName(jobName);
+        job.setSalary(Boss.decodeSalary(salary));
+        job.setJobArea(String.join(", ", tags));
+        job.setJobInfo(desc);
+        job.setRecruiter(bossInfo[0]);
+        job.setRecruiterActive(bossInfo[1]);
+        job.setCompanyName(bossTitleInfo[0]);
+        job.setRecruiterTitle(bossTitleInfo[1]);
+        job.setHref(href);
+        return job;
+    }
+
+    /**
+     * 公司地址形如 "杭州·滨江区·长河"，拆出区域与商圈
+     */
+    public static void applyLocation(Job job, String location) {
+        String[] companyArea = location.split("·");
+        job.setCity(companyArea[0].trim());
+        if (companyArea.length == 3) {
+            job.setCompanyArea(companyArea[1].trim());
+            job.setCompanyAreaDetail(companyArea[2].trim());
+        }
+    }
+
+    private static String str(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * 对比批量提取与逐字段提取的耗时
+     * 用法：传入保存下来的搜索结果页 html（浏览器"另存为"或 page.content()），可选第二个参数为循环次数
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("用法: BossExtractor <保存的搜索页.html> [循环次数]");
+            return;
+        }
+        String html = Files.readString(Paths.get(args[0]), StandardCharsets.UTF_8);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        try (Playwright playwright = Playwright.create();
+             Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true))) {
+            Page page = browser.newPage();
+            page.setContent(html);
+            int cards = page.locator(JOB_LIST_SELECTOR).count();
+            System.out.printf("卡片数量: %d, 循环次数: %d%n", cards, rounds);
+
+            // 预热
+            extractCards(page, cards);
+            extractCardsByLocator(page, cards);
+            extractDetail(page);
+            extractDetailByLocator(page);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                extractCards(page, cards);
+            }
+            long bulkCards = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                extractCardsByLocator(page, cards);
+            }
+            long locatorCards = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                extractDetail(page);
+            }
+            long bulkDetail = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                extractDetailByLocator(page);
+            }
+            long locatorDetail = System.nanoTime() - start;
+
+            System.out.printf("卡片列表  批量: %.2fms/次, 逐字段: %.2fms/次%n",
+                    bulkCards / 1e6 / rounds, locatorCards / 1e6 / rounds);
+            System.out.printf("详情区块  批量: %.2fms/次, 逐字段: %.2fms/次%n",
+                    bulkDetail / 1e6 / rounds, locatorDetail / 1e6 / rounds);
+        }
+    }
+}
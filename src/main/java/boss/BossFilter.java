@@ -0,0 +1,182 @@
+package boss;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.BlacklistStore;
+import utils.Job;
+import utils.KeywordMatcher;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Boss直聘岗位过滤规则
+ * 列表阶段用卡片/接口数据先过滤一遍，能判定的岗位不再点击；剩余规则在详情加载后再判定
+ * 并行搜索时多个线程共用一个实例，统计方法均已同步
+ * 黑名单岗位、HR职位的匹配器在名单变化（包括其他进程运行中加入的条目）后的下一次过滤时重建
+ */
+public class BossFilter {
+    private static final Logger log = LoggerFactory.getLogger(BossFilter.class);
+
+    public enum Rule {
+        KEYWORD("岗位名称不含关键词"),
+        BLACK_JOB("黑名单岗位"),
+        BLACK_COMPANY("黑名单公司"),
+        BLACK_RECRUITER("黑名单HR职位"),
+        DEAD_STATUS("非活跃HR"),
+        CITY_AREA("区域不符"),
+        SALARY("薪资不符");
+
+        private final String desc;
+
+        Rule(String desc) {
+            this.desc = desc;
+        }
+
+        public String getDesc() {
+            return desc;
+        }
+    }
+
+    private final BlacklistStore blacklist;
+    private final Set<String> blackCompanies;
+    private KeywordMatcher blackRecruiterMatcher;
+    private KeywordMatcher blackJobMatcher;
+    private long blacklistVersion = -1;
+    private final KeywordMatcher deadStatusMatcher;
+    private final KeywordMatcher keywordMatcher;
+    private final Set<String> cityArea;
+
+    /**
+     * 列表阶段各规则拦截数量（未点击即跳过）
+     */
+    private final Map<Rule, Integer> listRejected = new EnumMap<>(Rule.class);
+
+    /**
+     * 详情阶段各规则拦截数量（已点击后才跳过）
+     */
+    private final Map<Rule, Integer> detailRejected = new EnumMap<>(Rule.class);
+
+    /**
+     * 点击卡片到详情读取完成的累计耗时，用于估算列表过滤节省的时间
+     */
+    private long detailMillis = 0;
+    private int detailCount = 0;
+
+    public BossFilter(BossConfig config, BlacklistStore blacklist, KeywordMatcher deadStatusMatcher, KeywordMatcher keywordMatcher) {
+        this.blacklist = blacklist;
+        this.blackCompanies = blacklist.get("blackCompanies");
+        this.deadStatusMatcher = deadStatusMatcher;
+        this.keywordMatcher = keywordMatcher;
+        this.cityArea = config.getCityArea() == null ? new HashSet<>() : new HashSet<>(config.getCityArea());
+    }
+
+    /**
+     * 列表阶段过滤，字段缺失的规则留到详情阶段
+     *
+     * @return 命中的规则，未命中返回 null
+     */
+    public synchronized Rule checkList(Job job) {
+        return count(listRejected, check(job));
+    }
+
+    /**
+     * 详情阶段过滤
+     *
+     * @return 命中的规则，未命中返回 null
+     */
+    public synchronized Rule checkDetail(Job job) {
+        return count(detailRejected, check(job));
+    }
+
+    /**
+     * 记录一次点击+详情读取的耗时
+     */
+    public synchronized void recordDetailCost(long millis) {
+        detailMillis += millis;
+        detailCount++;
+    }
+
+    private Rule count(Map<Rule, Integer> counter, Rule rule) {
+        if (rule != null) {
+            counter.merge(rule, 1, Integer::sum);
+        }
+        return rule;
+    }
+
+    /**
+     * 名单版本变化时重新编译黑名单匹配器；公司黑名单直接查集合，无需重建
+     */
+    private void refreshMatchers() {
+        long version = blacklist.version();
+        if (version == blacklistVersion) {
+            return;
+        }
+        blackJobMatcher = KeywordMatcher.compile(blacklist.get("blackJobs"), false);
+        blackRecruiterMatcher = KeywordMatcher.compile(blacklist.get("blackRecruiters"), false);
+        if (blacklistVersion >= 0) {
+            log.debug("黑名单已变化，重建黑名单岗位、HR职位匹配器");
+        }
+        blacklistVersion = version;
+    }
+
+    private Rule check(Job job) {
+        refreshMatchers();
+        String jobName = job.getJobName();
+        if (isNotBlank(jobName)) {
+            if (!keywordMatcher.containsAny(jobName)) {
+                return Rule.KEYWORD;
+            }
+            if (blackJobMatcher.containsAny(jobName)) {
+                return Rule.BLACK_JOB;
+            }
+        }
+        if (isNotBlank(job.getCompanyName()) && blackCompanies.contains(job.getCompanyName())) {
+            return Rule.BLACK_COMPANY;
+        }
+        if (isNotBlank(job.getRecruiterTitle()) && blackRecruiterMatcher.containsAny(job.getRecruiterTitle())) {
+            return Rule.BLACK_RECRUITER;
+        }
+        if (isNotBlank(job.getRecruiterActive()) && deadStatusMatcher.containsAny(job.getRecruiterActive())) {
+            return Rule.DEAD_STATUS;
+        }
+        if (isNotBlank(job.getCompanyArea()) && unFitMyCityArea(job.getCompanyArea())) {
+            return Rule.CITY_AREA;
+        }
+        if (isNotBlank(job.getSalary()) && Boss.isSalaryNotExpected(job.getSalary())) {
+            return Rule.SALARY;
+        }
+        return null;
+    }
+
+    private boolean unFitMyCityArea(String companyArea) {
+        return !cityArea.isEmpty() && !cityArea.contains(companyArea.trim());
+    }
+
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * 输出各规则拦截数量，以及列表阶段按平均详情耗时估算节省的浏览器时间
+     */
+    public synchronized void logSummary() {
+        long avgMillis = detailCount == 0 ? 0 : detailMillis / detailCount;
+        int listTotal = 0;
+        int detailTotal = 0;
+        for (Rule rule : Rule.values()) {
+            int listHits = listRejected.getOrDefault(rule, 0);
+            int detailHits = detailRejected.getOrDefault(rule, 0);
+            listTotal += listHits;
+            detailTotal += detailHits;
+            if (listHits > 0 || detailHits > 0) {
+                log.info("过滤规则【{}】列表阶段拦截{}个(约节省{}秒)，详情阶段拦截{}个", rule.getDesc(), listHits,
+                        listHits * avgMillis / 1000, detailHits);
+            }
+        }
+        log.info("过滤汇总：列表阶段拦截{}个，详情阶段拦截{}个，单次点击+详情平均耗时{}ms，列表过滤约节省{}秒",
+                listTotal, detailTotal, avgMillis, listTotal * avgMillis / 1000);
+    }
+}
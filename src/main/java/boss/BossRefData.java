@@ -0,0 +1,105 @@
+package boss;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.HttpUtils;
+import utils.RefDataCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Boss直聘参考数据：城市编码、商圈编码
+ * 这些数据大约按月变化，统一走磁盘缓存，正常运行不需要再请求商圈接口、也不需要重新解析完整的编码文件
+ */
+public class BossRefData {
+    private static final Logger log = LoggerFactory.getLogger(BossRefData.class);
+
+    static final String CACHE_DIR = "src/main/java/boss/cache";
+    static final String CITY_INDUSTRY_CODE_PATH = "src/main/java/boss/city-industry-code.json";
+    private static final String BUSINESS_DISTRICT_URL = "https://www.zhipin.com/wapi/zpgeek/businessDistrict.json";
+    private static final int DEFAULT_TTL_DAYS = 30;
+
+    private static final RefDataCache cache = new RefDataCache(CACHE_DIR, Duration.ofDays(DEFAULT_TTL_DAYS));
+
+    /**
+     * 设置远程参考数据的缓存有效期
+     */
+    public static void setTtlDays(Integer days) {
+        cache.setTtl(Duration.ofDays(days == null || days <= 0 ? DEFAULT_TTL_DAYS : days));
+    }
+
+    /**
+     * 城市名称 -> 城市编码，由 city-industry-code.json 生成，源文件更新后自动失效
+     */
+    public static Map<String, String> cityCodes() {
+        Path source = Paths.get(CITY_INDUSTRY_CODE_PATH);
+        String json = cache.getDerived("city-code", source, () -> {
+            if (!Files.exists(source)) {
+                log.error("城市代码JSON文件不存在: {}", source.toAbsolutePath());
+                return null;
+            }
+            try {
+                JSONArray cityList = JSON.parseObject(Files.readString(source, StandardCharsets.UTF_8)).getJSONArray("city");
+                Map<String, String> codes = new LinkedHashMap<>();
+                if (cityList != null) {
+                    for (int i = 0; i < cityList.size(); i++) {
+                        JSONObject city = cityList.getJSONObject(i);
+                        Object code = city.get("code");
+                        codes.put(city.getString("name"), code != null ? code.toString() : "");
+                    }
+                }
+                return JSON.toJSONString(codes);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return json == null ? new HashMap<>() : JSON.parseObject(json, new TypeReference<LinkedHashMap<String, String>>() {
+        });
+    }
+
+    /**
+     * 城市下指定商圈的编码，逗号分隔；没有匹配的商圈时返回空字符串
+     *
+     * @param cityCode  城市编码
+     * @param areaNames 商圈名称
+     */
+    public static String businessDistrictCodes(String cityCode, List<String> areaNames) {
+        String json = cache.get("business-district-" + cityCode, () -> {
+            HashMap<String, String> params = new HashMap<>();
+            params.put("cityCode", cityCode);
+            BossResp bossResp = HttpUtils.get(BUSINESS_DISTRICT_URL, params, BossResp.class);
+            Object zpData = bossResp == null ? null : bossResp.getZpData();
+            if (zpData == null) {
+                return null;
+            }
+            JSONObject businessDistrict = JSON.parseObject(JSON.toJSONString(zpData)).getJSONObject("businessDistrict");
+            return businessDistrict == null ? null : businessDistrict.toJSONString();
+        });
+        if (json == null) {
+            return "";
+        }
+        BossCity bossCity = JSON.parseObject(json, BossCity.class);
+        List<BossCity> subLevelModelList = bossCity.getSubLevelModelList();
+        if (subLevelModelList == null) {
+            return "";
+        }
+        return subLevelModelList.stream()
+                .filter(area -> areaNames.contains(area.getName()))
+                .map(BossCity::getCode)
+                .collect(Collectors.joining(","));
+    }
+}
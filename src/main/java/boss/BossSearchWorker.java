@@ -0,0 +1,114 @@
+package boss;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.PlaywrightUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boss直聘并行搜索
+ * 城市×关键词拆成若干分片放入共享队列，每个工作线程持有自己的 Playwright 实例和浏览器上下文
+ * （Playwright 对象不能跨线程使用），通过主浏览器导出的登录状态（storageState）免登录，
+ * 依次领取分片执行与串行模式相同的搜索投递流程。
+ */
+public class BossSearchWorker implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(BossSearchWorker.class);
+
+    /**
+     * 一个搜索分片：某个城市下的某个关键词
+     *
+     * @param cityCode  城市编码
+     * @param searchUrl 城市（含商圈）的搜索地址，不含关键词
+     * @param keyword   搜索关键词
+     */
+    public record Shard(String cityCode, String searchUrl, String keyword) {
+    }
+
+    private final int index;
+    private final Queue<Shard> shards;
+    private final String storageState;
+    private final BossSubmitPipeline.SendThrottle throttle;
+
+    private BossSearchWorker(int index, Queue<Shard> shards, String storageState, BossSubmitPipeline.SendThrottle throttle) {
+        this.index = index;
+        this.shards = shards;
+        this.storageState = storageState;
+        this.throttle = throttle;
+    }
+
+    /**
+     * 用 parallelism 个浏览器并行处理全部分片，处理完毕后返回
+     *
+     * @param storageState 已登录上下文导出的登录状态
+     * @param throttle     所有浏览器共用的发送节流阀
+     */
+    public static void runAll(List<Shard> shards, int parallelism, String storageState, BossSubmitPipeline.SendThrottle throttle) {
+        Queue<Shard> queue = new ConcurrentLinkedQueue<>(shards);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "boss-search-" + threadIndex.incrementAndGet()));
+        log.info("并行搜索：分片{}个，浏览器{}个", shards.size(), parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            futures.add(executor.submit(new BossSearchWorker(i + 1, queue, storageState, throttle)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("并行搜索线程异常退出: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public void run() {
+        try (Playwright playwright = Playwright.create()) {
+            Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
+                    .setHeadless(false)
+                    .setSlowMo(50));
+            BrowserContext context = browser.newContext(new Browser.NewContextOptions()
+                    .setViewportSize(1920, 1080)
+                    .setUserAgent(PlaywrightUtil.DESKTOP_USER_AGENT)
+                    .setStorageState(storageState));
+            PlaywrightUtil.initStealth(context);
+            Page page = context.newPage();
+            page.setDefaultTimeout(30000);
+            BossSubmitPipeline pipeline = new BossSubmitPipeline(context, Boss.config, Boss.resultList, Boss.appliedJobs, Boss.jobDedup, throttle);
+
+            Shard shard;
+            int done = 0;
+            while ((shard = shards.poll()) != null) {
+                try {
+                    Boss.postJobByKeyword(page, pipeline, shard);
+                } catch (Exception e) {
+                    log.error("浏览器{}处理【{}】城市:{}失败: {}", index, shard.keyword(), shard.cityCode(), e.getMessage(), e);
+                }
+                done++;
+            }
+            pipeline.drain();
+            log.info("浏览器{}已完成{}个分片", index, done);
+            pipeline.logSummary();
+            context.close();
+            browser.close();
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package boss;
+
+import ai.AiBatchScreener;
+import ai.AiFilter;
+import ai.AiService;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.AppliedJobs;
+import utils.Job;
+import utils.JobDedup;
+import utils.JobFingerprint;
+import utils.PlaywrightUtil;
+import utils.WaitHistogram;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Boss直聘投递流水线
+ * 每个岗位的详情页投递拆成若干个不阻塞的步骤，最多同时推进 maxDetailPages 个详情页，
+ * 列表遍历在两次点击之间调用 {@link #pump()} 推进各详情页，不必等待上一个岗位投递完毕。
+ * 开启AI时，岗位先等待异步的AI筛选结果（不占用详情页名额），AI判定不匹配的岗位不再打开详情页；
+ * Playwright 对象不是线程安全的，所以全部步骤都在调用方线程里执行，只是交错推进；
+ * 所有详情页共享一个发送节流阀 {@link SendThrottle}，多个浏览器并行搜索时也共用同一个，两条消息的发送间隔不小于 waitTime，单账号发送速率不变。
+ */
+public class BossSubmitPipeline {
+    private static final Logger log = LoggerFactory.getLogger(BossSubmitPipeline.class);
+
+    private static final String CHAT_BTN = "a.btn-startchat, a.op-btn-chat";
+    private static final String CHAT_INPUT = "div#chat-input.chat-input[contenteditable='true'], textarea.input-area";
+    private static final String SEND_BTN = "div.send-message, button[type='send'].btn-send, button.btn-send";
+    private static final String IMAGE_INPUT = "//div[@aria-label='发送图片']//input[@type='file']";
+
+    /**
+     * 没有到期步骤时的轮询间隔
+     */
+    private static final int IDLE_POLL_MILLIS = 100;
+
+    /**
+     * 条件未满足时同一步骤的重试间隔
+     */
+    private static final int CONDITION_POLL_MILLIS = 150;
+
+    private static final long CHAT_BUTTON_TIMEOUT = 12_000;
+    private static final long CHAT_INPUT_TIMEOUT = 50_000;
+    private static final long SEND_ACK_TIMEOUT = 10_000;
+
+    /**
+     * 图片上传没有可观察的完成标志，上传后保留一段间隔再关闭页面
+     */
+    private static final long IMAGE_SETTLE_MILLIS = 2_000;
+
+    /**
+     * 等待AI结果的岗位数量上限 = 详情页上限 × 该系数，超过后 submit 阻塞
+     */
+    private static final int QUEUE_FACTOR = 4;
+
+    private enum Step {
+        AI_WAIT("AI筛选"),
+        OPEN("打开详情页"),
+        CHAT_BUTTON("立即沟通按钮可见"),
+        CHAT_INPUT("输入框可编辑"),
+        GREET("发送节流"),
+        SEND_ACK("发送确认"),
+        IMAGE("图片简历"),
+        CLOSE("关闭详情页");
+
+        private final String desc;
+
+        Step(String desc) {
+            this.desc = desc;
+        }
+    }
+
+    /**
+     * 单个岗位的投递进度
+     */
+    private static class Task {
+        final String keyword;
+        final Job job;
+        final String detailUrl;
+        /**
+         * 异步AI筛选结果，未开启AI时为 null
+         */
+        final CompletableFuture<AiFilter> aiVerdict;
+        Page page;
+        Step step;
+        /**
+         * 下一步最早执行时间
+         */
+        long notBefore;
+        /**
+         * 进入当前步骤的时间，用于统计实际等待
+         */
+        long stepStart;
+        /**
+         * 当前步骤的最晚完成时间，超过即视为超时
+         */
+        long deadline;
+        AiFilter aiResult;
+        int greetIndex;
+        boolean imgResume;
+
+        Task(String keyword, Job job, String detailUrl, CompletableFuture<AiFilter> aiVerdict) {
+            this.keyword = keyword;
+            this.job = job;
+            this.detailUrl = detailUrl;
+            this.aiVerdict = aiVerdict;
+            this.step = aiVerdict != null ? Step.AI_WAIT : Step.OPEN;
+            this.stepStart = System.currentTimeMillis();
+            this.deadline = aiVerdict != null ? stepStart + aiWaitTimeoutMillis() : 0;
+        }
+    }
+
+    private final BrowserContext context;
+    private final BossConfig config;
+    private final List<Job> resultList;
+    private final AppliedJobs appliedJobs;
+    private final JobDedup jobDedup;
+    private final int maxDetailPages;
+    private final SendThrottle throttle;
+    private final List<Task> running = new ArrayList<>();
+    private final WaitHistogram waits = new WaitHistogram("Boss投递");
+
+    private long startMillis = 0;
+    private int submitted = 0;
+    private int finished = 0;
+    private int failed = 0;
+    private int aiRejected = 0;
+    private int aiUnscreened = 0;
+
+    /**
+     * 发送节流阀：同一账号下所有流水线共用，保证任意两条消息之间至少间隔 intervalMillis
+     */
+    public static class SendThrottle {
+        private final long intervalMillis;
+        private long nextSendAt = 0;
+
+        public SendThrottle(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+
+        /**
+         * 以 waitTime（秒）作为发送间隔
+         */
+        public static SendThrottle fromConfig(BossConfig config) {
+            return new SendThrottle(parseSeconds(config.getWaitTime()) * 1000L);
+        }
+
+        /**
+         * 尝试占用一次发送机会
+         *
+         * @return 0 表示已占用，可以立即发送；否则为最早可发送的时间
+         */
+        public synchronized long tryAcquire(long now) {
+            if (now < nextSendAt) {
+                return nextSendAt;
+            }
+            nextSendAt = now + intervalMillis;
+            return 0;
+        }
+
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+    }
+
+    public BossSubmitPipeline(BrowserContext context, BossConfig config, List<Job> resultList, AppliedJobs appliedJobs,
+                              JobDedup jobDedup, SendThrottle throttle) {
+        this.context = context;
+        this.config = config;
+        this.resultList = resultList;
+        this.appliedJobs = appliedJobs;
+        this.jobDedup = jobDedup;
+        this.maxDetailPages = config.getMaxDetailPages();
+        this.throttle = throttle;
+    }
+
+    /**
+     * 加入一个待投递岗位；排队岗位已满时先推进已有任务，直到空出位置
+     *
+     * @param aiVerdict 已开始的AI筛选，未开启AI时传 null
+     */
+    public void submit(String keyword, Job job, String detailUrl, CompletableFuture<AiFilter> aiVerdict) {
+        if (startMillis == 0) {
+            startMillis = System.currentTimeMillis();
+        }
+        while (running.size() >= maxDetailPages * QUEUE_FACTOR) {
+            if (!pump()) {
+                PlaywrightUtil.sleepMillis(IDLE_POLL_MILLIS);
+            }
+        }
+        running.add(new Task(keyword, job, detailUrl, aiVerdict));
+        submitted++;
+        pump();
+    }
+
+    /**
+     * 推进所有到期的详情页各一步
+     *
+     * @return 本轮是否有步骤被执行
+     */
+    public boolean pump() {
+        boolean progressed = false;
+        long now = System.currentTimeMillis();
+        Iterator<Task> iterator = running.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (now < task.notBefore) {
+                continue;
+            }
+            boolean done;
+            try {
+                done = advance(task, now);
+            } catch (Exception e) {
+                log.error("投递失败，岗位：{}，步骤：{}，原因：{}", task.job.getJobName(), task.step, e.getMessage());
+                failed++;
+                closeQuietly(task);
+                done = true;
+            }
+            if (done) {
+                iterator.remove();
+            }
+            progressed = true;
+            now = System.currentTimeMillis();
+        }
+        return progressed;
+    }
+
+    /**
+     * 等待所有详情页投递完毕
+     */
+    public void drain() {
+        while (!running.isEmpty()) {
+            if (!pump()) {
+                PlaywrightUtil.sleepMillis(IDLE_POLL_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * 执行任务的当前步骤，每个等待都是"条件满足即进入下一步，超时则放弃"，不再固定睡眠
+     *
+     * @return 任务是否已结束（成功或放弃）
+     */
+    private boolean advance(Task task, long now) {
+        switch (task.step) {
+            case AI_WAIT -> {
+                if (!task.aiVerdict.isDone() && now <= task.deadline) {
+                    task.notBefore = now + CONDITION_POLL_MILLIS;
+                    return false;
+                }
+                if (!task.aiVerdict.isDone() || task.aiVerdict.isCompletedExceptionally()) {
+                    // AI 链路异常或迟迟没有结果时不能让 drain 一直等下去，按未筛选处理
+                    boolean timedOut = !task.aiVerdict.isDone();
+                    waits.record(Step.AI_WAIT.desc, now - task.stepStart, timedOut);
+                    log.warn("AI筛选{}，不打开详情页：{} | {}", timedOut ? "超时" : "异常",
+                            task.job.getJobName(), task.job.getCompanyName());
+                    task.aiVerdict.cancel(false);
+                    aiUnscreened++;
+                    return true;
+                }
+                conditionMet(task, now);
+                task.aiResult = task.aiVerdict.join();
+                if (!task.aiResult.getResult() && !task.aiResult.isScreened()) {
+                    log.info("AI未能筛选（额度用尽或请求失败），不打开详情页：{} | {}", task.job.getJobName(), task.job.getCompanyName());
+                    aiUnscreened++;
+                    return true;
+                }
+                if (!task.aiResult.getResult()) {
+                    log.info("AI判定岗位不匹配，不打开详情页：{} | {}", task.job.getJobName(), task.job.getCompanyName());
+                    aiRejected++;
+                    return true;
+                }
+                moveTo(task, Step.OPEN, now, 0);
+            }
+            case OPEN -> {
+                // 详情页名额已满时稍后再开
+                if (openPages() >= maxDetailPages) {
+                    task.notBefore = now + CONDITION_POLL_MILLIS;
+                    return false;
+                }
+                task.page = context.newPage();
+                // 只等到响应提交即返回，页面渲染由后续步骤轮询
+                task.page.navigate(task.detailUrl, new Page.NavigateOptions().setWaitUntil(WaitUntilState.COMMIT));
+                waits.record(Step.OPEN.desc, System.currentTimeMillis() - now);
+                moveTo(task, Step.CHAT_BUTTON, now, CHAT_BUTTON_TIMEOUT);
+            }
+            case CHAT_BUTTON -> {
+                Locator chatBtn = task.page.locator(CHAT_BTN);
+                String btnText = chatBtn.count() > 0 && chatBtn.first().isVisible() ? chatBtn.first().textContent() : "";
+                if (btnText.contains("立即沟通")) {
+                    conditionMet(task, now);
+                    chatBtn.first().click();
+                    moveTo(task, Step.CHAT_INPUT, now, CHAT_INPUT_TIMEOUT);
+                } else if (btnText.contains("继续沟通")) {
+                    // 之前已经沟通过（可能是手动或其他设备），记入已投递索引，以后不再点开
+                    conditionMet(task, now);
+                    log.info("已沟通过，跳过：{} | {}", task.job.getJobName(), task.job.getCompanyName());
+                    appliedJobs.record(jobKey(task), AppliedJobs.Outcome.CONTACTED);
+                    closeQuietly(task);
+                    return true;
+                } else {
+                    return retryOrGiveUp(task, now, "未找到立即沟通按钮");
+                }
+            }
+            case CHAT_INPUT -> {
+                // 点击沟通后可能弹出"继续沟通"弹窗，出现即处理，然后继续等待输入框
+                closeDialogAndContinue(task.page);
+                Locator input = task.page.locator(CHAT_INPUT);
+                if (input.count() > 0 && input.first().isVisible() && input.first().isEditable()) {
+                    conditionMet(task, now);
+                    moveTo(task, Step.GREET, now, 0);
+                } else {
+                    return retryOrGiveUp(task, now, "聊天输入框未出现");
+                }
+            }
+            case GREET -> {
+                // 全局发送节流：所有详情页共用一个发送间隔，这是唯一需要主动等待的地方
+                long sendAt = throttle.tryAcquire(now);
+                if (sendAt > 0) {
+                    task.notBefore = sendAt;
+                    return false;
+                }
+                conditionMet(task, now);
+                sendGreeting(task, config.getSayHi().get(task.greetIndex));
+                task.greetIndex++;
+                moveTo(task, Step.SEND_ACK, System.currentTimeMillis(), SEND_ACK_TIMEOUT);
+            }
+            case SEND_ACK -> {
+                // 输入框被清空即视为页面已受理本条消息
+                boolean acknowledged = isInputCleared(task.page);
+                if (!acknowledged && now <= task.deadline) {
+                    task.notBefore = now + CONDITION_POLL_MILLIS;
+                    return false;
+                }
+                if (acknowledged) {
+                    conditionMet(task, now);
+                } else {
+                    waits.record(Step.SEND_ACK.desc, now - task.stepStart, true);
+                    log.warn("未确认打招呼语已发送，继续后续步骤: {}", task.job.getJobName());
+                }
+                if (task.greetIndex < config.getSayHi().size()) {
+                    moveTo(task, Step.GREET, now, 0);
+                } else if (config.getSendImgResume()) {
+                    moveTo(task, Step.IMAGE, now, 0);
+                } else {
+                    moveTo(task, Step.CLOSE, now, 0);
+                }
+            }
+            case IMAGE -> {
+                long sendAt = throttle.tryAcquire(now);
+                if (sendAt > 0) {
+                    task.notBefore = sendAt;
+                    return false;
+                }
+                task.imgResume = sendImageResume(task.page);
+                moveTo(task, Step.CLOSE, task.imgResume ? now + IMAGE_SETTLE_MILLIS : now, 0);
+            }
+            case CLOSE -> {
+                log.info("投递完成 | 岗位：{} | 招呼语：{} | 图片简历：{}", task.job.getJobName(), config.getSayHi(),
+                        task.imgResume ? "已发送" : "未发送");
+                closeQuietly(task);
+                resultList.add(task.job);
+                appliedJobs.record(jobKey(task), AppliedJobs.Outcome.APPLIED);
+                jobDedup.record(JobFingerprint.of(task.job));
+                finished++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已投递索引中的岗位ID，与列表阶段 {@link Boss#jobKey(Job)} 一致
+     */
+    private static String jobKey(Task task) {
+        String id = BossApiCapture.encryptJobId(task.detailUrl);
+        return id.isEmpty() ? task.job.getCompanyName() + "|" + task.job.getJobName() : id;
+    }
+
+    private int openPages() {
+        int count = 0;
+        for (Task task : running) {
+            if (task.page != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * AI筛选的最长等待：批量请求的凑批时间 + 批量请求失败后逐个请求，各自包含全部重试
+     */
+    private static long aiWaitTimeoutMillis() {
+        return AiBatchScreener.MAX_WAIT_MILLIS + 2 * AiService.maxRequestMillis();
+    }
+
+    private void moveTo(Task task, Step step, long now, long timeoutMillis) {
+        task.step = step;
+        task.notBefore = now;
+        task.stepStart = now;
+        task.deadline = now + timeoutMillis;
+    }
+
+    private void conditionMet(Task task, long now) {
+        waits.record(task.step.desc, now - task.stepStart);
+    }
+
+    /**
+     * 条件未满足：未超时则稍后重试，超时则放弃该岗位
+     */
+    private boolean retryOrGiveUp(Task task, long now, String reason) {
+        if (now <= task.deadline) {
+            task.notBefore = now + CONDITION_POLL_MILLIS;
+            return false;
+        }
+        waits.record(task.step.desc, now - task.stepStart, true);
+        log.warn("{}，跳过岗位: {}", reason, task.job.getJobName());
+        failed++;
+        closeQuietly(task);
+        return true;
+    }
+
+    private boolean isInputCleared(Page page) {
+        Locator input = page.locator(CHAT_INPUT);
+        if (input.count() == 0) {
+            return false;
+        }
+        Object empty = input.first().evaluate("el => ((el.value ?? el.innerText) || '').trim().length === 0");
+        return Boolean.TRUE.equals(empty);
+    }
+
+    /**
+     * 判断是否出现弹窗，出现弹窗则关闭该弹窗，点击继续沟通
+     *
+     * @return 是否点击了继续沟通
+     */
+    private boolean closeDialogAndContinue(Page page) {
+        Locator dialogWrapper = page.locator("div.dialog-container");
+        if (dialogWrapper.count() == 0) {
+            return false;
+        }
+        Locator closeBtn = dialogWrapper.locator("//a[@ka='dialog_close']");
+        if (closeBtn.count() == 0) {
+            return false;
+        }
+        closeBtn.click();
+        // 查找当前页面继续沟通按钮
+        Locator chatBtns = page.locator("a.btn-startchat");
+        int total = chatBtns.count();
+        if (total == 0) {
+            log.warn("未找到任何聊天按钮");
+            return false;
+        }
+        Locator target = chatBtns.first();
+        // 多个按钮，按文本过滤优先选择包含 "继续沟通" 的
+        for (int i = 0; i < total && total > 1; i++) {
+            String txt = "";
+            try {
+                txt = chatBtns.nth(i).textContent();
+            } catch (Exception ignore) {
+            }
+            if (txt != null && txt.contains("继续沟通")) {
+                target = chatBtns.nth(i);
+                break;
+            }
+        }
+        target.click();
+        return true;
+    }
+
+    /**
+     * 填写一条问候语并点击发送，对 contenteditable 元素触发 input 事件
+     */
+    private void sendGreeting(Task task, String configSayHi) {
+        String sayHi = configSayHi.replaceAll("[\\r\\n]", "");
+        AiFilter aiResult = task.aiResult;
+        String message = (aiResult != null && aiResult.getResult() && Boss.isValidString(aiResult.getMessage()))
+                ? aiResult.getMessage() : sayHi;
+
+        Locator input = task.page.locator(CHAT_INPUT).first();
+        input.click();
+        Object tagObj = input.evaluate("el => el.tagName ? el.tagName.toLowerCase() : ''");
+        String tag = tagObj != null ? tagObj.toString() : "";
+        if ("textarea".equals(tag)) {
+            input.fill(message);
+        } else {
+            // 设置 innerText 并触发 input 事件，让页面能识别变化
+            input.evaluate("(el, msg) => { el.innerText = msg; el.focus(); el.dispatchEvent(new Event('input', { bubbles: true })); }", message);
+        }
+
+        Locator sendBtn = task.page.locator(SEND_BTN);
+        if (sendBtn.count() > 0) {
+            sendBtn.first().click();
+        } else {
+            log.warn("未找到发送按钮，跳过发送当前打招呼语");
+        }
+    }
+
+    private boolean sendImageResume(Page page) {
+        try {
+            URL resourceUrl = Boss.class.getResource("/resume.jpg");
+            if (resourceUrl != null) {
+                File imageFile = new File(resourceUrl.toURI());
+                Locator fileInput = page.locator(IMAGE_INPUT);
+                if (fileInput.count() > 0) {
+                    fileInput.setInputFiles(imageFile.toPath());
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.error("发送图片简历失败: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private void closeQuietly(Task task) {
+        try {
+            if (task.page != null && !task.page.isClosed()) {
+                task.page.close();
+            }
+        } catch (Exception ignore) {
+        }
+    }
+
+    private static int parseSeconds(String value) {
+        try {
+            return value == null || value.isBlank() ? 0 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("waitTime【{}】不是有效的秒数，不限制发送间隔", value);
+            return 0;
+        }
+    }
+
+    /**
+     * 输出投递吞吐量
+     */
+    public void logSummary() {
+        waits.logSummary();
+        long elapsed = startMillis == 0 ? 0 : System.currentTimeMillis() - startMillis;
+        double perHour = elapsed == 0 ? 0 : finished * 3_600_000.0 / elapsed;
+        log.info("投递流水线：提交{}个，完成{}个，放弃{}个，AI判定不匹配{}个，AI未筛选跳过{}个，并发详情页{}个，发送间隔{}ms，用时{}秒，吞吐量{}个/小时",
+                submitted, finished, failed, aiRejected, aiUnscreened, maxDetailPages, throttle.getIntervalMillis(), elapsed / 1000, String.format("%.1f", perHour));
+    }
+}
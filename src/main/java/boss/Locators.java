@@ -30,6 +30,19 @@ public class Locators {
     public static final String JOB_AREA = "span.company-location";
     // 岗位标签
     public static final String TAG_LIST = "ul.tag-list li";
+    // 岗位薪资
+    public static final String JOB_SALARY = "span.job-salary";
+
+    /**
+     * 岗位详情区块（点击卡片后右侧展示）
+     */
+    public static final String JOB_DETAIL_BOX = "div[class*='job-detail-box']";
+    public static final String DETAIL_JOB_NAME = "span[class*='job-name']";
+    public static final String DETAIL_TAG_LIST = "ul[class*='tag-list'] > li";
+    public static final String DETAIL_DESC = "p.desc";
+    public static final String DETAIL_BOSS_NAME = "h2[class*='name']";
+    public static final String DETAIL_BOSS_TITLE = "div[class*='boss-info-attr']";
+    public static final String MORE_JOB_BTN = "a.more-job-btn";
 
     // 职位详情页元素
     public static final String CHAT_BUTTON = "[class*='btn btn-startchat']";
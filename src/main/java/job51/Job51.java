@@ -5,7 +5,11 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.AppliedJobs;
+import utils.JobDedup;
+import utils.JobFingerprint;
 import utils.JobUtils;
+import utils.Platform;
 import utils.SeleniumUtil;
 
 import java.util.ArrayList;
@@ -37,17 +41,33 @@ public class Job51 {
     static String baseUrl = "https://we.51job.com/pc/search?";
     static List<String> resultList = new ArrayList<>();
     static Job51Config config = Job51Config.init();
+    static AppliedJobs appliedJobs;
+    static JobDedup jobDedup;
     static Date startDate;
 
     public static void main(String[] args) {
         String searchUrl = getSearchUrl();
-        SeleniumUtil.initDriver();
-        startDate = new Date();
-        Login();
-        config.getKeywords().forEach(keyword -> resume(searchUrl + "&keyword=" + keyword));
+        appliedJobs = AppliedJobs.open(Platform.JOB51);
+        jobDedup = JobDedup.open(Platform.JOB51);
+        try {
+            SeleniumUtil.initDriver();
+            startDate = new Date();
+            Login();
+            config.getKeywords().forEach(keyword -> resume(searchUrl + "&keyword=" + keyword));
+        } finally {
+            // 中途抛出异常也要输出统计并关闭写入，定时任务下次运行重新打开；需在 printResult 停止日志之前执行
+            closeJobIndexes();
+        }
         printResult();
     }
 
+    private static void closeJobIndexes() {
+        appliedJobs.logSummary();
+        appliedJobs.close();
+        jobDedup.logSummary();
+        jobDedup.close();
+    }
+
     private static void printResult() {
         String message = String.format("\n51job投递完成，共投递%d个简历，用时%s", resultList.size(), formatDuration(startDate, new Date()));
         log.info(message);
@@ -163,14 +183,32 @@ public class Job51 {
         List<WebElement> titles = CHROME_DRIVER.findElements(By.cssSelector("[class*='jname text-cut']"));
         List<WebElement> companies = CHROME_DRIVER.findElements(By.cssSelector("[class*='cname text-cut']"));
         JavascriptExecutor executor = CHROME_DRIVER;
+        List<String> selected = new ArrayList<>();
+        List<JobFingerprint> fingerprints = new ArrayList<>();
         for (int i = 0; i < checkboxes.size(); i++) {
-            WebElement checkbox = checkboxes.get(i);
-            executor.executeScript("arguments[0].click();", checkbox);
             String title = titles.get(i).getText();
             String company = companies.get(i).getText();
+            // 列表中没有岗位链接，以公司+岗位名称作为岗位ID，历次运行已投递过的不再勾选
+            String jobId = company + "|" + title;
+            if (appliedJobs.contains(jobId)) {
+                log.info("已投递过，跳过:{} | {} 职位", company, title);
+                continue;
+            }
+            // 列表只读取了公司和岗位名称，城市、薪资按任意值匹配
+            JobFingerprint fingerprint = JobFingerprint.of(company, title, null, null);
+            if (jobDedup.isDuplicate(fingerprint)) {
+                continue;
+            }
+            WebElement checkbox = checkboxes.get(i);
+            executor.executeScript("arguments[0].click();", checkbox);
             resultList.add(company + " | " + title);
+            selected.add(jobId);
+            fingerprints.add(fingerprint);
             log.info("选中:{} | {} 职位", company, title);
         }
+        if (selected.isEmpty()) {
+            return;
+        }
         SeleniumUtil.sleep(1);
         ACTIONS.keyDown(Keys.CONTROL).sendKeys(Keys.HOME).keyUp(Keys.CONTROL).perform();
         boolean success = false;
@@ -184,6 +222,8 @@ public class Job51 {
                     SeleniumUtil.sleep(1);
                     button.get(1).click();
                     success = true;
+                    selected.forEach(jobId -> appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED));
+                    fingerprints.forEach(jobDedup::record);
                 }
             } catch (ElementClickInterceptedException e) {
                 log.error("失败，1s后重试..");
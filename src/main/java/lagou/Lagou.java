@@ -7,7 +7,11 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.AppliedJobs;
+import utils.JobDedup;
+import utils.JobFingerprint;
 import utils.JobUtils;
+import utils.Platform;
 import utils.SeleniumUtil;
 
 import java.util.ArrayList;
@@ -43,33 +47,49 @@ public class Lagou {
     static int jobCount = 0;
     static String cookiePath = "./src/main/java/lagou/cookie.json";
     static LagouConfig config = LagouConfig.init();
+    static AppliedJobs appliedJobs;
+    static JobDedup jobDedup;
     static Date startDate;
 
 
     public static void main(String[] args) {
-        SeleniumUtil.initDriver();
-        startDate = new Date();
-        login();
-        CHROME_DRIVER.get(homeUrl);
-        homeUrl = "https://www.lagou.com/wn/zhaopin?fromSearch=true";
-        config.getKeywords().forEach(keyword -> {
-            String searchUrl = getSearchUrl(keyword);
-            CHROME_DRIVER.get(searchUrl);
-            setMaxPage();
-            for (int i = page; i <= maxPage || currentKeyJobNum > oneKeyMaxJob; i++) {
-                submit();
-                try {
-                    getWindow();
-                    CHROME_DRIVER.findElements(By.className("lg-pagination-item-link")).get(1).click();
-                } catch (Exception e) {
-                    break;
+        appliedJobs = AppliedJobs.open(Platform.LAGOU);
+        jobDedup = JobDedup.open(Platform.LAGOU);
+        try {
+            SeleniumUtil.initDriver();
+            startDate = new Date();
+            login();
+            CHROME_DRIVER.get(homeUrl);
+            homeUrl = "https://www.lagou.com/wn/zhaopin?fromSearch=true";
+            config.getKeywords().forEach(keyword -> {
+                String searchUrl = getSearchUrl(keyword);
+                CHROME_DRIVER.get(searchUrl);
+                setMaxPage();
+                for (int i = page; i <= maxPage || currentKeyJobNum > oneKeyMaxJob; i++) {
+                    submit();
+                    try {
+                        getWindow();
+                        CHROME_DRIVER.findElements(By.className("lg-pagination-item-link")).get(1).click();
+                    } catch (Exception e) {
+                        break;
+                    }
                 }
-            }
-            currentKeyJobNum = 0;
-        });
+                currentKeyJobNum = 0;
+            });
+        } finally {
+            // 中途抛出异常也要输出统计并关闭写入，定时任务下次运行重新打开；需在 printResult 停止日志之前执行
+            closeJobIndexes();
+        }
         printResult();
     }
 
+    private static void closeJobIndexes() {
+        appliedJobs.logSummary();
+        appliedJobs.close();
+        jobDedup.logSummary();
+        jobDedup.close();
+    }
+
     private static void printResult() {
         String message = String.format("\n拉勾投递完成，共投递%d个岗位，用时%s", jobCount, formatDuration(startDate, new Date()));
         log.info(message);
@@ -137,11 +157,26 @@ public class Lagou {
                 } catch (Exception e) {
                     getWindow();
                 }
+                // 列表链接即岗位详情地址，历次运行已投递过的不再打开
+                String jobId = element == null ? null : AppliedJobs.jobId(element.getAttribute("href"), null);
+                if (appliedJobs.contains(jobId)) {
+                    log.info("已投递过，跳过：{}", jobId);
+                    continue;
+                }
                 if (-1 == tryClick(element, i)) {
                     continue;
                 }
                 TimeUnit.SECONDS.sleep(1);
                 getWindow();
+                if (jobId == null) {
+                    jobId = AppliedJobs.jobId(CHROME_DRIVER.getCurrentUrl(), null);
+                    if (appliedJobs.contains(jobId)) {
+                        log.info("已投递过，跳过：{}", jobId);
+                        CHROME_DRIVER.close();
+                        getWindow();
+                        continue;
+                    }
+                }
                 String jobName;
                 WebElement submit;
                 try {
@@ -194,11 +229,20 @@ public class Lagou {
                             log.error("第二次获取职位信息失败，放弃了！", ex);
                         }
                     }
+                    // 详情页才有公司和薪资，其他平台投递过的相同岗位不再投简历；职位信息第一段为城市
+                    JobFingerprint fingerprint = JobFingerprint.of(companyName, jobTitle, jobInfo, salary);
+                    if (jobDedup.isDuplicate(fingerprint)) {
+                        CHROME_DRIVER.close();
+                        getWindow();
+                        continue;
+                    }
                     log.info("投递: {},职位: {},公司: {},职位信息: {},公司信息: {},薪资: {},福利: {}", jobTitle, jobTitle, companyName, jobInfo, companyInfo, salary, weal);
                     jobCount++;
                     currentKeyJobNum++;
                     TimeUnit.SECONDS.sleep(2);
                     submit.click();
+                    appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED);
+                    jobDedup.record(fingerprint);
                     TimeUnit.SECONDS.sleep(2);
                     try {
                         WebElement send = CHROME_DRIVER.findElement(By.cssSelector("body > div:nth-child(45) > div > div.lg-design-modal-wrap.position-modal > div > div.lg-design-modal-content > div.lg-design-modal-footer > button.lg-design-btn.lg-design-btn-default"));
@@ -236,12 +280,16 @@ public class Lagou {
                     }
                 } else if ("立即沟通".equals(submit.getText())) {
                     submit.click();
+                    appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED);
                     try {
                         WAIT.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//*[@id=\"modalConIm\"]"))).click();
                     } catch (Exception e) {
                         submit.click();
                         WAIT.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//*[@id=\"modalConIm\"]"))).click();
                     }
+                } else if (submit.getText().contains("已投递")) {
+                    log.info("这个岗位之前已投递过，记录后关闭标签页面！");
+                    appliedJobs.record(jobId, AppliedJobs.Outcome.CONTACTED);
                 } else {
                     log.info("这个岗位没有投简历按钮...一秒后关闭标签页面！");
                     TimeUnit.SECONDS.sleep(1);
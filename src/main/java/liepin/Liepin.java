@@ -7,7 +7,11 @@ import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
+import utils.AppliedJobs;
+import utils.JobDedup;
+import utils.JobFingerprint;
 import utils.JobUtils;
+import utils.Platform;
 import utils.PlaywrightUtil;
 import utils.SeleniumUtil;
 
@@ -40,6 +44,8 @@ public class Liepin {
     static List<String> resultList = new ArrayList<>();
     static String baseUrl = "https://www.liepin.com/zhaopin/?";
     static LiepinConfig config = LiepinConfig.init();
+    static AppliedJobs appliedJobs;
+    static JobDedup jobDedup;
     static Date startDate;
 
     /**
@@ -68,15 +74,29 @@ public class Liepin {
 
 
     public static void main(String[] args) {
-        PlaywrightUtil.init();
-        startDate = new Date();
-        login();
-        for (String keyword : config.getKeywords()) {
-            submit(keyword);
+        appliedJobs = AppliedJobs.open(Platform.LIEPIN);
+        jobDedup = JobDedup.open(Platform.LIEPIN);
+        try {
+            PlaywrightUtil.init();
+            startDate = new Date();
+            login();
+            for (String keyword : config.getKeywords()) {
+                submit(keyword);
+            }
+        } finally {
+            // 中途抛出异常也要输出统计并关闭写入，定时任务下次运行重新打开；需在 printResult 停止日志之前执行
+            closeJobIndexes();
         }
         printResult();
     }
 
+    private static void closeJobIndexes() {
+        appliedJobs.logSummary();
+        appliedJobs.close();
+        jobDedup.logSummary();
+        jobDedup.close();
+    }
+
     private static void printResult() {
         String message = String.format("\n猎聘投递完成，共投递%d个岗位，用时%s", resultList.size(), formatDuration(startDate, new Date()));
         log.info(message);
@@ -195,6 +215,19 @@ public class Liepin {
             String companyName = companyNameElements.nth(i).textContent().replaceAll("\n", " ");
             String salary = salaryElements.nth(i).textContent().replaceAll("\n", " ");
             String recruiterName = null;
+            // 岗位ID取自卡片上的详情链接，历次运行已投递过的不再点击
+            Locator jobLink = page.locator(JOB_CARDS).nth(i).locator("a");
+            String jobId = AppliedJobs.jobId(jobLink.count() > 0 ? jobLink.first().getAttribute("href") : null,
+                    companyName + "|" + jobName);
+            if (appliedJobs.contains(jobId)) {
+                log.info("已投递过，跳过：【{}】的【{}·{}】岗位", companyName, jobName, salary);
+                continue;
+            }
+            // 列表中没有单独的城市，按任意城市匹配
+            JobFingerprint fingerprint = JobFingerprint.of(companyName, jobName, null, salary);
+            if (jobDedup.isDuplicate(fingerprint)) {
+                continue;
+            }
             
             try {
                 // 获取当前岗位卡片
@@ -405,6 +438,8 @@ public class Liepin {
                         
                         resultList.add(sb.append("【").append(companyName).append(" ").append(jobName).append(" ").append(salary).append(" ").append(recruiterName).append(" ").append("】").toString());
                         sb.setLength(0);
+                        appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED);
+                        jobDedup.record(fingerprint);
                         log.info("成功发起聊天:【{}】的【{}·{}】岗位", companyName, jobName, salary);
                         
                     } catch (Exception e) {
@@ -412,6 +447,8 @@ public class Liepin {
                         // 即使关闭失败，也认为投递成功
                         resultList.add(sb.append("【").append(companyName).append(" ").append(jobName).append(" ").append(salary).append(" ").append(recruiterName).append(" ").append("】").toString());
                         sb.setLength(0);
+                        appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED);
+                        jobDedup.record(fingerprint);
                     }
                     
                 } catch (Exception e) {
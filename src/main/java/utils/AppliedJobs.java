@@ -0,0 +1,215 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 已投递岗位索引，按平台保存在磁盘上，跨运行（包括每天的定时任务）保留
+ * 文件为追加写入的文本，每行"岗位ID\t时间戳（秒）\t结果"；启动时顺序读入内存哈希表，之后查询是 O(1)，
+ * 时间戳和结果压缩在一个 long 里，几十万条也只占几十MB内存、加载在一秒以内。
+ * 同一岗位重复记录时以最后一条为准，重复行过多时启动时顺便压缩文件。
+ */
+public class AppliedJobs {
+    private static final Logger log = LoggerFactory.getLogger(AppliedJobs.class);
+
+    public enum Outcome {
+        /**
+         * 本工具投递/发起了聊天
+         */
+        APPLIED("已投递"),
+        /**
+         * 页面显示之前已经沟通过
+         */
+        CONTACTED("已沟通过");
+
+        private final String desc;
+
+        Outcome(String desc) {
+            this.desc = desc;
+        }
+
+        public String getDesc() {
+            return desc;
+        }
+    }
+
+    private static final String FILE_NAME = "applied-jobs.tsv";
+
+    private final Platform platform;
+    private final Path path;
+    /**
+     * 岗位ID -> (时间戳秒 << 8 | 结果序号)
+     */
+    private final Map<String, Long> index = new ConcurrentHashMap<>(1 << 12);
+    private final AtomicInteger skipped = new AtomicInteger();
+    private BufferedWriter writer;
+
+    private AppliedJobs(Platform platform, Path path) {
+        this.platform = platform;
+        this.path = path;
+    }
+
+    /**
+     * 打开平台对应的索引，文件位于平台目录下（如 src/main/java/boss/applied-jobs.tsv）
+     */
+    public static AppliedJobs open(Platform platform) {
+        return open(platform, "src/main/java/" + platform.name().toLowerCase() + "/" + FILE_NAME);
+    }
+
+    public static AppliedJobs open(Platform platform, String path) {
+        AppliedJobs jobs = new AppliedJobs(platform, Paths.get(path));
+        long start = System.currentTimeMillis();
+        int lines = jobs.load();
+        log.info("【{}】已投递岗位{}条，加载耗时{}ms", platform.getPlatformName(), jobs.index.size(),
+                System.currentTimeMillis() - start);
+        if (lines > jobs.index.size() * 2 && lines > 1000) {
+            jobs.compact();
+        }
+        return jobs;
+    }
+
+    /**
+     * 由岗位链接得到稳定的岗位ID：去掉协议、域名、查询参数和锚点；链接为空时使用 fallback（如"公司|岗位名称"）
+     */
+    public static String jobId(String url, String fallback) {
+        if (url == null || url.isBlank()) {
+            return fallback;
+        }
+        String id = url.trim();
+        int end = id.length();
+        int query = id.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = id.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        int start = 0;
+        int scheme = id.indexOf("://");
+        if (scheme >= 0 && scheme < end) {
+            int path = id.indexOf('/', scheme + 3);
+            start = path >= 0 && path < end ? path : end;
+        }
+        id = id.substring(start, end);
+        return id.isEmpty() ? fallback : id;
+    }
+
+    /**
+     * 是否已经投递或沟通过，命中时计入跳过次数
+     */
+    public boolean contains(String jobId) {
+        if (jobId == null || !index.containsKey(jobId)) {
+            return false;
+        }
+        skipped.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 记录投递结果并立即写入文件
+     */
+    public synchronized void record(String jobId, Outcome outcome) {
+        if (jobId == null || jobId.isBlank()) {
+            return;
+        }
+        long seconds = Instant.now().getEpochSecond();
+        index.put(jobId, seconds << 8 | outcome.ordinal());
+        try {
+            if (writer == null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line(jobId, seconds, outcome));
+            writer.flush();
+        } catch (IOException e) {
+            log.error("写入已投递岗位失败: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void logSummary() {
+        log.info("【{}】跳过已投递岗位{}个，累计已投递{}个", platform.getPlatformName(), skipped.get(), index.size());
+    }
+
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+            }
+            writer = null;
+        }
+    }
+
+    private int load() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf('\t');
+                int second = first < 0 ? -1 : line.indexOf('\t', first + 1);
+                if (second < 0) {
+                    // 写入途中被中断的最后一行
+                    continue;
+                }
+                try {
+                    long seconds = Long.parseLong(line, first + 1, second, 10);
+                    Outcome outcome = Outcome.valueOf(line.substring(second + 1));
+                    index.put(line.substring(0, first), seconds << 8 | outcome.ordinal());
+                    lines++;
+                } catch (IllegalArgumentException e) {
+                    log.debug("跳过无法解析的已投递记录: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取已投递岗位【{}】失败: {}", path, e.getMessage());
+        }
+        return lines;
+    }
+
+    /**
+     * 每个岗位只保留最后一条记录，先写临时文件再原子替换
+     */
+    private synchronized void compact() {
+        try {
+            close();
+            Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), FILE_NAME, ".tmp");
+            Outcome[] outcomes = Outcome.values();
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : index.entrySet()) {
+                    long value = entry.getValue();
+                    out.write(line(entry.getKey(), value >>> 8, outcomes[(int) (value & 0xFF)]));
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("压缩已投递岗位文件失败: {}", e.getMessage());
+        }
+    }
+
+    private static String line(String jobId, long seconds, Outcome outcome) {
+        // 岗位ID中的制表符和换行会破坏行格式
+        return jobId.replace('\t', ' ').replace('\n', ' ') + '\t' + seconds + '\t' + outcome.name() + '\n';
+    }
+}
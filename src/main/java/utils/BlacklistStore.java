@@ -0,0 +1,388 @@
+package utils;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 黑名单存储：快照 + 追加日志，可供多个进程（StartAll 同时启动的各平台）共用
+ * 快照即原来的 data.json；每次新增/删除只向同目录的 .journal 文件追加一行，进程被强制结束也不会丢失已记录的修改，
+ * 单次写入的开销与黑名单大小无关。启动时读取快照并重放日志；日志累积到一定条数或显式调用 {@link #compact()} 时
+ * 合并为新快照并清空日志。
+ * <p>
+ * 多进程：由同目录 .lock 文件上的文件锁协调，追加和合并持排它锁串行执行，读取新增日志持共享锁可同时进行。
+ * 每个进程记住已读到的日志位置，定时（以及每次写入前）只读取其他进程新追加的部分，运行中就能看到彼此的修改；
+ * 合并后日志被清空、.lock 文件中记录的代数加一，其他进程发现代数变化时才重新读取快照。
+ * <p>
+ * 同一进程内文件锁不能重复获取（会抛出 OverlappingFileLockException），所以每个文件在进程内只有一个实例：
+ * 定时任务多次打开同一文件时共用该实例，按打开次数计数，全部关闭后才真正关闭；进程退出时合并并关闭所有未关闭的实例。
+ */
+public class BlacklistStore {
+    private static final Logger log = LoggerFactory.getLogger(BlacklistStore.class);
+
+    /**
+     * 日志累积多少条后合并一次快照
+     */
+    private static final int COMPACT_EVERY = 200;
+
+    /**
+     * 读取其他进程修改的间隔
+     */
+    private static final long REFRESH_MILLIS = 2000;
+
+    /**
+     * 进程内已打开的实例，键为规范化后的快照路径
+     */
+    private static final Map<Path, BlacklistStore> OPEN = new HashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            synchronized (BlacklistStore.class) {
+                OPEN.values().forEach(BlacklistStore::shutdown);
+                OPEN.clear();
+            }
+        }, "blacklist-shutdown"));
+    }
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Map<String, Set<String>> lists = new LinkedHashMap<>();
+    private final FileChannel lockChannel;
+    private final FileChannel journalChannel;
+    private final ScheduledExecutorService refresher;
+    /**
+     * 已读取的日志代数与位置，代数变化说明日志被合并清空过
+     */
+    private long generation = -1;
+    private long journalOffset = 0;
+    private int journalEntries = 0;
+    private boolean closed = false;
+    /**
+     * 未关闭的打开次数，只在 BlacklistStore.class 上同步访问
+     */
+    private int references = 0;
+    /**
+     * 名单内容每变化一次（本进程或其他进程的修改）加一，供使用方判断是否需要重建索引
+     */
+    private volatile long version = 0;
+
+    private BlacklistStore(Path snapshot) throws IOException {
+        this.snapshot = snapshot;
+        this.journal = snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+        Files.createDirectories(snapshot.toAbsolutePath().getParent());
+        this.lockChannel = FileChannel.open(snapshot.resolveSibling(snapshot.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // 不能与 READ 同时使用 APPEND，追加时在持有排它锁的情况下写到文件末尾
+        this.journalChannel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "blacklist-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 读取快照并重放日志，日志不为空时顺便合并一次，快照不存在时创建，之后定时读取其他进程的修改
+     * 本进程已打开同一文件时返回已有实例（先读取最新修改），每次 open 都要对应一次 {@link #close()}
+     *
+     * @param path      快照文件（如 data.json）
+     * @param listNames 需要保证存在的名单，快照中没有时创建为空
+     */
+    public static BlacklistStore open(String path, String... listNames) {
+        Path snapshot = Paths.get(path).toAbsolutePath().normalize();
+        BlacklistStore store;
+        boolean created = false;
+        synchronized (BlacklistStore.class) {
+            store = OPEN.get(snapshot);
+            if (store == null) {
+                try {
+                    store = new BlacklistStore(snapshot);
+                } catch (IOException e) {
+                    throw new IllegalStateException("打开黑名单【" + path + "】失败: " + e.getMessage(), e);
+                }
+                OPEN.put(snapshot, store);
+                created = true;
+            }
+            store.references++;
+        }
+        synchronized (store) {
+            for (String name : listNames) {
+                store.list(name);
+            }
+            if (!created) {
+                store.refresh();
+                return store;
+            }
+            try (FileLock ignored = store.lockChannel.lock()) {
+                int replayed = store.catchUp();
+                if (replayed > 0) {
+                    log.info("已从【{}】恢复{}条黑名单修改", store.journal.getFileName(), replayed);
+                    store.compactLocked();
+                } else if (!Files.exists(store.snapshot)) {
+                    // 首次运行时创建快照；持排它锁写入，不会与其他进程的合并互相覆盖
+                    JSONUtils.writeLists(store.snapshot, store.lists);
+                    log.info("创建数据文件: {}", store.snapshot);
+                }
+            } catch (IOException e) {
+                log.error("读取黑名单【{}】失败: {}", path, e.getMessage());
+            }
+        }
+        store.refresher.scheduleWithFixedDelay(store::refresh, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    /**
+     * 名单的只读视图，随修改（包括其他进程的修改）实时更新，可多线程读取
+     */
+    public synchronized Set<String> get(String name) {
+        return Collections.unmodifiableSet(list(name));
+    }
+
+    /**
+     * 加入名单并记录日志，已存在时不记录
+     */
+    public synchronized boolean add(String name, String value) {
+        return write("add", name, value);
+    }
+
+    /**
+     * 移出名单并记录日志，不存在时不记录
+     */
+    public synchronized boolean remove(String name, String value) {
+        return write("remove", name, value);
+    }
+
+    /**
+     * 名单内容的版本，名单变化（包括其他进程的修改）后增大
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 立即读取其他进程追加的修改
+     * 定时任务中抛出的异常会让任务永久停止，所以这里不向外抛出任何异常
+     */
+    public synchronized void refresh() {
+        if (closed) {
+            return;
+        }
+        try (FileLock ignored = lockChannel.lock(0, Long.MAX_VALUE, true)) {
+            int changes = catchUp();
+            if (changes > 0) {
+                log.debug("已读取其他进程的{}条黑名单修改", changes);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取黑名单日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 把当前名单（含其他进程的修改）写成新快照（先写临时文件再原子替换），然后清空日志
+     * 替换快照后、清空日志前被中断也没关系：重放日志是幂等的
+     */
+    public synchronized void compact() {
+        if (closed) {
+            return;
+        }
+        try (FileLock ignored = lockChannel.lock()) {
+            catchUp();
+            compactLocked();
+        } catch (IOException e) {
+            log.error("合并黑名单快照【{}】失败: {}", snapshot, e.getMessage());
+        }
+    }
+
+    /**
+     * 打开次数减一并合并快照；最后一次关闭时停止读取并关闭文件
+     */
+    public void close() {
+        synchronized (BlacklistStore.class) {
+            if (references > 0 && --references > 0) {
+                compact();
+                return;
+            }
+            // 在类锁内关闭，避免关闭途中又打开一个新实例去获取同一把文件锁
+            OPEN.remove(snapshot, this);
+            shutdown();
+        }
+    }
+
+    private synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        compact();
+        closed = true;
+        refresher.shutdownNow();
+        try {
+            journalChannel.close();
+            lockChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Set<String> list(String name) {
+        return lists.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * 持排它锁：先读完其他进程的修改再判断是否需要记录，多个进程的修改按日志顺序生效
+     */
+    private boolean write(String op, String name, String value) {
+        if (closed) {
+            throw new IllegalStateException("黑名单已关闭");
+        }
+        try (FileLock ignored = lockChannel.lock()) {
+            catchUp();
+            Set<String> list = list(name);
+            boolean changed = "add".equals(op) ? list.add(value) : list.remove(value);
+            if (!changed) {
+                return false;
+            }
+            version++;
+            long size = journalChannel.size();
+            // 末尾有被中断进程留下的半行时先换行，避免本条接在后面无法解析
+            String prefix = size > journalOffset ? "\n" : "";
+            byte[] line = (prefix + new JSONObject().put("op", op).put("list", name).put("value", value) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            // 整行一次写出，写到操作系统即可，进程被杀不会丢失
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                journalChannel.write(buffer, size + buffer.position());
+            }
+            journalOffset = size + line.length;
+            if (++journalEntries >= COMPACT_EVERY) {
+                compactLocked();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("写入黑名单日志失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 调用方已持有锁：代数变化时重新读取快照和整个日志，否则只读取新增的日志
+     *
+     * @return 读到的日志条数
+     */
+    private int catchUp() throws IOException {
+        long current = readGeneration();
+        if (current != generation) {
+            reload();
+            generation = current;
+            journalOffset = 0;
+            journalEntries = 0;
+        }
+        long size = journalChannel.size();
+        if (size <= journalOffset) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - journalOffset));
+        while (buffer.hasRemaining() && journalChannel.read(buffer, journalOffset + buffer.position()) > 0) {
+            // 读满为止
+        }
+        byte[] bytes = buffer.array();
+        int replayed = 0;
+        int lineStart = 0;
+        for (int i = 0; i < buffer.position(); i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            if (apply(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8))) {
+                replayed++;
+            }
+            lineStart = i + 1;
+        }
+        // 进程在写入途中被杀时最后一行不完整，不计入已读位置
+        journalOffset += lineStart;
+        journalEntries += replayed;
+        if (replayed > 0) {
+            version++;
+        }
+        return replayed;
+    }
+
+    /**
+     * 调用方已持有排它锁
+     */
+    private void compactLocked() throws IOException {
+        JSONUtils.writeLists(snapshot, lists);
+        journalChannel.truncate(0);
+        generation = readGeneration() + 1;
+        lockChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, generation), 0);
+        journalOffset = 0;
+        journalEntries = 0;
+    }
+
+    /**
+     * 重新读取快照；名单集合本身保持不变（已返回的视图继续有效），其他进程删除的值也随之删除
+     */
+    private void reload() {
+        Map<String, Set<String>> fresh = Map.of();
+        if (Files.exists(snapshot)) {
+            try {
+                fresh = JSONUtils.readLists(snapshot, ConcurrentHashMap::newKeySet);
+            } catch (Exception e) {
+                log.error("读取【{}】数据失败！{}", snapshot, e.getMessage());
+                return;
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : lists.entrySet()) {
+            Set<String> values = fresh.getOrDefault(entry.getKey(), Set.of());
+            entry.getValue().retainAll(values);
+            entry.getValue().addAll(values);
+        }
+        fresh.forEach((name, values) -> list(name).addAll(values));
+        version++;
+    }
+
+    private long readGeneration() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && lockChannel.read(buffer, buffer.position()) > 0) {
+            // 读满为止
+        }
+        return buffer.hasRemaining() ? 0 : buffer.getLong(0);
+    }
+
+    private boolean apply(String line) {
+        if (line.isBlank()) {
+            return false;
+        }
+        try {
+            JSONObject entry = new JSONObject(line);
+            Set<String> list = list(entry.getString("list"));
+            if ("remove".equals(entry.optString("op"))) {
+                list.remove(entry.getString("value"));
+            } else {
+                list.add(entry.getString("value"));
+            }
+            return true;
+        } catch (Exception e) {
+            // 进程在写入途中被杀时留下的半行
+            log.warn("跳过无法解析的黑名单日志: {}", line);
+            return false;
+        }
+    }
+}
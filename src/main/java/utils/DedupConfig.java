@@ -0,0 +1,47 @@
+package utils;
+
+import lombok.Data;
+import lombok.SneakyThrows;
+
+import java.util.List;
+
+/**
+ * 跨平台去重配置，对应 config.yaml 中的 dedup
+ */
+@Data
+public class DedupConfig {
+    /**
+     * 是否启用跨平台去重
+     */
+    private Boolean enable;
+
+    /**
+     * 去重策略：first 先投先得，任一平台投递过其他平台都跳过；preferred 按 preferredPlatforms 的顺序，
+     * 只有更优先的平台投递过才跳过，优先平台不会因为其他平台先投了而放弃
+     */
+    private String policy;
+
+    /**
+     * preferred 策略下的平台优先级（boss、liepin、zhilian、job51、lagou），未列出的排在最后
+     */
+    private List<String> preferredPlatforms;
+
+    /**
+     * 投递记录有效天数，过期后同一岗位可以在其他平台再次投递
+     */
+    private Integer expireDays;
+
+    @SneakyThrows
+    public static DedupConfig init() {
+        DedupConfig config = JobUtils.getConfig(DedupConfig.class);
+        if (config == null) {
+            config = new DedupConfig();
+        }
+        config.setEnable(Boolean.TRUE.equals(config.enable));
+        config.setPolicy("preferred".equalsIgnoreCase(config.policy) ? "preferred" : "first");
+        config.setPreferredPlatforms(config.preferredPlatforms == null ? List.of() : config.preferredPlatforms);
+        config.setExpireDays(config.expireDays == null || config.expireDays <= 0 ? 30 : config.expireDays);
+        return config;
+    }
+
+}
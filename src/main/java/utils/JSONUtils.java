@@ -1,17 +1,209 @@
 package utils;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * 名单类 JSON（{"名单": ["值", ...]}，如 data.json）的读写
+ * 基于 Jackson 的流式读写：写入时逐个值输出并正确转义引号、反斜杠和控制字符，不在内存中拼出整个文档；
+ * 读取时直接把值放入集合，不经过中间的 JSONObject / List。
+ */
 public class JSONUtils {
-    public static String customJsonFormat(Map<String, Set<String>> data) {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * 与原来手写格式一致：4 空格缩进，每个值一行，"名单": [
+     */
+    private static class ListPrettyPrinter extends DefaultPrettyPrinter {
+        ListPrettyPrinter() {
+            DefaultIndenter indenter = new DefaultIndenter("    ", "\n");
+            _objectIndenter = indenter;
+            _arrayIndenter = indenter;
+        }
+
+        @Override
+        public ListPrettyPrinter createInstance() {
+            return new ListPrettyPrinter();
+        }
+
+        @Override
+        public void writeObjectFieldValueSeparator(JsonGenerator g) throws IOException {
+            g.writeRaw(": ");
+        }
+    }
+
+    /**
+     * 生成格式化的 JSON 字符串，适合小文档；写文件请用 {@link #writeLists(Path, Map)}
+     */
+    public static String customJsonFormat(Map<String, ? extends Collection<String>> data) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+            writeLists(generator, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 流式写入名单：先写同目录下的临时文件并刷到磁盘，再原子替换目标文件，
+     * 写到一半被中断时原文件保持不变
+     */
+    public static void writeLists(Path path, Map<String, ? extends Collection<String>> data) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            // 临时文件默认只有本人可读写，沿用原文件的权限
+            try {
+                Files.setPosixFilePermissions(tmp, Files.exists(path)
+                        ? Files.getPosixFilePermissions(path) : PosixFilePermissions.fromString("rw-r--r--"));
+            } catch (UnsupportedOperationException ignored) {
+                // Windows
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+                try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+                    // 关闭生成器时只刷出缓冲，通道留到 force 之后再关
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    writeLists(generator, data);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 流式读取名单，值直接放入 setFactory 创建的集合；不是数组的字段忽略，数组中的数字按文本读取
+     *
+     * @return 名单名 -> 集合，保持文件中的顺序；文件为空时返回空 Map
+     */
+    public static Map<String, Set<String>> readLists(Path path, Supplier<Set<String>> setFactory) throws IOException {
+        Map<String, Set<String>> lists = new LinkedHashMap<>();
+        try (InputStream in = Files.newInputStream(path);
+             JsonParser parser = FACTORY.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return lists;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "名单文件应以 { 开头");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Set<String> list = lists.computeIfAbsent(name, k -> setFactory.get());
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "名单【" + name + "】不完整");
+                    }
+                    if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                        list.add(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return lists;
+    }
+
+    private static void writeLists(JsonGenerator generator, Map<String, ? extends Collection<String>> data) throws IOException {
+        generator.setPrettyPrinter(new ListPrettyPrinter());
+        generator.writeStartObject();
+        for (Map.Entry<String, ? extends Collection<String>> entry : data.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            generator.writeStartArray();
+            for (String value : entry.getValue()) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * 对比原来的 StringBuilder 拼接 + Files.write 与流式写入的耗时，并校验特殊字符能原样读回
+     * 用法：可选参数为每个名单的条数
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Map<String, Set<String>> data = new LinkedHashMap<>();
+        for (String name : new String[]{"blackCompanies", "blackRecruiters", "blackJobs"}) {
+            Set<String> list = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                list.add(name + "某某科技有限公司" + i);
+            }
+            data.put(name, list);
+        }
+        data.get("blackCompanies").add("引号\"公司\\反斜杠\n换行");
+        Path dir = Files.createTempDirectory("json-utils");
+        Path legacy = dir.resolve("legacy.json");
+        Path streamed = dir.resolve("data.json");
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Files.write(legacy, legacyFormat(data).getBytes());
+            long legacyNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            writeLists(streamed, data);
+            long streamNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            Map<String, Set<String>> read = readLists(streamed, HashSet::new);
+            long readNanos = System.nanoTime() - start;
+            System.out.printf("第%d轮：拼接写入%dms，流式原子写入%dms，流式读取%dms，读回一致：%s%n", round + 1,
+                    legacyNanos / 1_000_000, streamNanos / 1_000_000, readNanos / 1_000_000, read.equals(data));
+        }
+        Files.deleteIfExists(legacy);
+        Files.deleteIfExists(streamed);
+        Files.deleteIfExists(dir);
+    }
+
+    private static String legacyFormat(Map<String, Set<String>> data) {
         StringBuilder sb = new StringBuilder();
         sb.append("{\n");
         for (Map.Entry<String, Set<String>> entry : data.entrySet()) {
             sb.append("    \"").append(entry.getKey()).append("\": [\n");
             sb.append(entry.getValue().stream().map(s -> "        \"" + s + "\"").collect(Collectors.joining(",\n")));
-
             sb.append("\n    ],\n");
         }
         sb.delete(sb.length() - 2, sb.length());
@@ -45,6 +45,16 @@ public class Job implements Serializable {
      */
     private String recruiter;
 
+    /**
+     * HR职位
+     */
+    private String recruiterTitle;
+
+    /**
+     * HR活跃状态
+     */
+    private String recruiterActive;
+
     /**
      * 公司名字
      */
@@ -59,6 +69,11 @@ public class Job implements Serializable {
 
     private String companyAreaDetail;
 
+    /**
+     * 城市，用于跨平台去重，读不到时为空
+     */
+    private String city;
+
     @Override
     public String toString() {
         return String.format("【%s, %s, %s, %s, %s, %s】", companyName, jobName, jobArea, salary, companyTag, recruiter);
@@ -0,0 +1,338 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 跨平台岗位去重
+ * 所有平台共用一个追加写入的指纹文件，每行"公司|岗位名称\t城市\t薪资档位\t平台\t时间戳（秒）"。
+ * 启动时读入内存，之后每次查询前只读取文件新增的部分，同时运行的其他平台进程刚投递的岗位也能立即看到；
+ * 每行一次写出，多个进程同时追加不会互相穿插。
+ * 本平台自己的重复由 {@link AppliedJobs} 负责，这里只看其他平台的投递记录。
+ * <p>
+ * 过期记录过多时，启动时把未过期的记录写入临时文件再原子替换。多个进程由同目录 .lock 文件上的文件锁协调：
+ * 追加和读取持共享锁，压缩持排它锁；每次追加都重新打开文件，不会写进被替换掉的旧文件。
+ * 压缩后 .lock 中记录的代数加一，其他进程发现代数变化时从头重新读取。
+ */
+public class JobDedup {
+    private static final Logger log = LoggerFactory.getLogger(JobDedup.class);
+
+    private static final String DEFAULT_PATH = "src/main/java/job-fingerprints.tsv";
+
+    /**
+     * 过期记录超过该行数且超过一半时压缩文件
+     */
+    private static final int COMPACT_MIN_EXPIRED = 1000;
+
+    private record Entry(String city, String band, Platform platform, long seconds) {
+    }
+
+    private final Platform platform;
+    private final Path path;
+    private final Path lockPath;
+    private final boolean enabled;
+    private final boolean preferred;
+    private final List<Platform> ranking = new ArrayList<>();
+    private final long expireSeconds;
+    /**
+     * 公司|岗位名称 -> 其他平台的投递记录，通常只有一两条
+     */
+    private final Map<String, List<Entry>> index = new HashMap<>(1 << 12);
+    private final AtomicInteger checked = new AtomicInteger();
+    private final Map<Platform, AtomicInteger> hits = new EnumMap<>(Platform.class);
+    private long readOffset = 0;
+    /**
+     * 已读取的文件代数，代数变化说明文件被压缩替换过
+     */
+    private long generation = -1;
+    private int loadedLines = 0;
+    private int expiredLines = 0;
+    private FileChannel lockChannel;
+
+    private JobDedup(Platform platform, Path path, DedupConfig config) {
+        this.platform = platform;
+        this.path = path;
+        this.lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        this.enabled = config.getEnable();
+        this.preferred = "preferred".equals(config.getPolicy());
+        this.expireSeconds = TimeUnit.DAYS.toSeconds(config.getExpireDays());
+        for (String name : config.getPreferredPlatforms()) {
+            try {
+                ranking.add(Platform.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                log.warn("未知的去重优先平台: {}", name);
+            }
+        }
+        for (Platform p : Platform.values()) {
+            hits.put(p, new AtomicInteger());
+        }
+    }
+
+    public static JobDedup open(Platform platform) {
+        return open(platform, DEFAULT_PATH, DedupConfig.init());
+    }
+
+    public static JobDedup open(Platform platform, String path, DedupConfig config) {
+        JobDedup dedup = new JobDedup(platform, Paths.get(path), config);
+        if (dedup.enabled) {
+            synchronized (dedup) {
+                try {
+                    Files.createDirectories(dedup.path.toAbsolutePath().getParent());
+                    dedup.lockChannel = FileChannel.open(dedup.lockPath,
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                } catch (IOException e) {
+                    log.error("打开岗位指纹锁文件【{}】失败: {}", dedup.lockPath, e.getMessage());
+                }
+                dedup.refresh();
+                if (dedup.expiredLines > COMPACT_MIN_EXPIRED && dedup.expiredLines * 2 > dedup.loadedLines) {
+                    dedup.compact();
+                }
+            }
+            log.info("【{}】跨平台去重已启用（{}），已有岗位指纹{}个", platform.getPlatformName(),
+                    dedup.preferred ? "优先平台" + dedup.ranking : "先投先得", dedup.index.size());
+        }
+        return dedup;
+    }
+
+    /**
+     * 该岗位是否已经在其他平台投递过且按策略应当跳过，计入命中率统计；没有指纹（公司或岗位名称为空）时不判断
+     */
+    public synchronized boolean isDuplicate(JobFingerprint fingerprint) {
+        if (!enabled || fingerprint == null) {
+            return false;
+        }
+        checked.incrementAndGet();
+        refresh();
+        List<Entry> entries = index.get(fingerprint.key());
+        if (entries == null) {
+            return false;
+        }
+        long now = Instant.now().getEpochSecond();
+        for (Entry entry : entries) {
+            if (entry.platform() != platform && now - entry.seconds() <= expireSeconds
+                    && fingerprint.matches(entry.city(), entry.band()) && outranks(entry.platform())) {
+                hits.get(entry.platform()).incrementAndGet();
+                log.info("【{}】已投递过相同岗位，跳过：{}", entry.platform().getPlatformName(), fingerprint.key());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 记录本平台已投递的岗位，没有指纹时不记录
+     */
+    public synchronized void record(JobFingerprint fingerprint) {
+        if (!enabled || fingerprint == null) {
+            return;
+        }
+        long seconds = Instant.now().getEpochSecond();
+        byte[] line = (String.join("\t", fingerprint.key(), fingerprint.city(), fingerprint.band(), platform.name(),
+                String.valueOf(seconds)) + '\n').getBytes(StandardCharsets.UTF_8);
+        // 持共享锁时文件不会被压缩替换；每次重新打开，整行一次写出
+        try (FileLock ignored = lock(true)) {
+            Files.write(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException | RuntimeException e) {
+            log.error("写入岗位指纹失败: {}", e.getMessage());
+        }
+    }
+
+    public void logSummary() {
+        if (!enabled) {
+            return;
+        }
+        int total = checked.get();
+        int hit = hits.values().stream().mapToInt(AtomicInteger::get).sum();
+        StringBuilder detail = new StringBuilder();
+        hits.forEach((p, count) -> {
+            if (count.get() > 0) {
+                detail.append(detail.isEmpty() ? "，其中" : "、").append(p.getPlatformName()).append(count.get()).append("个");
+            }
+        });
+        log.info("【{}】跨平台去重：检查{}个岗位，{}个已在其他平台投递，命中率{}%{}", platform.getPlatformName(), total, hit,
+                total == 0 ? 0 : Math.round(hit * 1000.0 / total) / 10.0, detail);
+    }
+
+    public synchronized void close() {
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException ignored) {
+            }
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * 先投先得时任何其他平台的记录都算数；优先平台策略下只有排名不低于本平台的平台才算
+     */
+    private boolean outranks(Platform other) {
+        return !preferred || rank(other) <= rank(platform);
+    }
+
+    private int rank(Platform p) {
+        int index = ranking.indexOf(p);
+        return index < 0 ? ranking.size() : index;
+    }
+
+    private void add(String key, Entry entry) {
+        index.computeIfAbsent(key, k -> new ArrayList<>(2)).add(entry);
+    }
+
+    /**
+     * 锁文件打开失败时不加锁（返回 null），退化为无协调的追加
+     */
+    private FileLock lock(boolean shared) throws IOException {
+        return lockChannel == null ? null : lockChannel.lock(0, Long.MAX_VALUE, shared);
+    }
+
+    private long readGeneration() throws IOException {
+        if (lockChannel == null) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && lockChannel.read(buffer, buffer.position()) > 0) {
+            // 读满为止
+        }
+        return buffer.hasRemaining() ? 0 : buffer.getLong(0);
+    }
+
+    /**
+     * 读取上次读取位置之后新增的完整行（包括其他进程追加的）；文件被其他进程压缩过时从头重新读取
+     */
+    private void refresh() {
+        try (FileLock ignored = lock(true)) {
+            long current = readGeneration();
+            if (current != generation) {
+                index.clear();
+                readOffset = 0;
+                loadedLines = 0;
+                expiredLines = 0;
+                generation = current;
+            }
+            if (!Files.exists(path) || Files.size(path) <= readOffset) {
+                return;
+            }
+            byte[] bytes;
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+                file.seek(readOffset);
+                bytes = new byte[(int) (file.length() - readOffset)];
+                file.readFully(bytes);
+            }
+            int lineStart = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                parse(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                lineStart = i + 1;
+            }
+            // 没有换行结尾的半行留到下次
+            readOffset += lineStart;
+        } catch (IOException | RuntimeException e) {
+            log.error("读取岗位指纹【{}】失败: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 持排它锁只保留未过期的记录（所有平台），先写临时文件再原子替换，然后代数加一并重新读取
+     */
+    private void compact() {
+        long now = Instant.now().getEpochSecond();
+        int kept = 0;
+        int total = 0;
+        try (FileLock exclusive = lock(false)) {
+            if (lockChannel == null || !Files.exists(path)) {
+                return;
+            }
+            if (readGeneration() != generation) {
+                // 等锁期间其他进程已经压缩过，重新加载即可
+                exclusive.release();
+                refresh();
+                return;
+            }
+            Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                // 临时文件默认只有本人可读写，沿用原文件的权限
+                try {
+                    Files.setPosixFilePermissions(tmp, Files.getPosixFilePermissions(path));
+                } catch (UnsupportedOperationException ignored) {
+                    // Windows
+                }
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                     BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        total++;
+                        int tab = line.lastIndexOf('\t');
+                        try {
+                            if (tab >= 0 && now - Long.parseLong(line.substring(tab + 1)) <= expireSeconds) {
+                                out.write(line);
+                                out.write('\n');
+                                kept++;
+                            }
+                        } catch (NumberFormatException e) {
+                            // 写入途中被中断的半行
+                        }
+                    }
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            lockChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, readGeneration() + 1), 0);
+            log.info("岗位指纹文件已压缩：{}行 -> {}行", total, kept);
+        } catch (IOException | RuntimeException e) {
+            log.error("压缩岗位指纹文件失败: {}", e.getMessage());
+            return;
+        }
+        refresh();
+    }
+
+    private void parse(String line) {
+        String[] parts = line.split("\t", -1);
+        // 公司或岗位名称为空的旧记录不参与判断
+        if (parts.length != 5 || parts[0].startsWith("|") || parts[0].endsWith("|")) {
+            return;
+        }
+        try {
+            Platform source = Platform.valueOf(parts[3]);
+            long seconds = Long.parseLong(parts[4]);
+            loadedLines++;
+            // 本平台的记录不参与判断，过期的记录不再加载
+            if (Instant.now().getEpochSecond() - seconds > expireSeconds) {
+                expiredLines++;
+                return;
+            }
+            if (source == platform) {
+                return;
+            }
+            add(parts[0], new Entry(parts[1], parts[2], source, seconds));
+        } catch (IllegalArgumentException e) {
+            log.debug("跳过无法解析的岗位指纹: {}", line);
+        }
+    }
+}
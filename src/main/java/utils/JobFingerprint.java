@@ -0,0 +1,166 @@
+package utils;
+
+import java.util.List;
+
+/**
+ * 跨平台岗位指纹
+ * 同一个岗位常常同时发布在多个平台上，各平台的展示又略有不同（"北京字节跳动科技有限公司" 与 "字节跳动"，
+ * "Java开发工程师（J10086）" 与 "java开发工程师"，"15-25K·13薪" 与 "1.5-2.5万"），
+ * 这里把公司、岗位名称、城市、薪资档位归一化后作为指纹，用于在平台之间识别同一岗位。
+ * 部分平台的列表中读不到城市或薪资，所以这两项不放进 {@link #key()}，为空时视为与任意值相同（见 {@link #matches}）。
+ *
+ * @param key  公司|岗位名称
+ * @param city 归一化后的城市，未知时为空字符串
+ * @param band 薪资档位（最低月薪 / 5000），未知时为空字符串
+ */
+public record JobFingerprint(String key, String city, String band) {
+
+    /**
+     * 薪资档位宽度（元/月），按最低月薪向下取整
+     */
+    private static final int SALARY_BAND = 5000;
+
+    /**
+     * 公司名称前的地区，只去掉第一个匹配到的
+     */
+    private static final List<String> REGION_PREFIXES = List.of(
+            "内蒙古", "黑龙江", "北京", "上海", "天津", "重庆", "广州", "深圳", "杭州", "成都", "南京", "武汉",
+            "西安", "苏州", "厦门", "长沙", "郑州", "合肥", "青岛", "济南", "宁波", "东莞", "佛山", "珠海",
+            "大连", "沈阳", "福州", "昆明", "无锡", "广东", "浙江", "江苏", "四川", "湖北", "湖南", "山东",
+            "福建", "安徽", "河南", "河北", "辽宁", "陕西", "云南", "中国");
+
+    /**
+     * 公司名称结尾的法律形式与常见行业词，循环去除直到不再变化
+     */
+    private static final List<String> COMPANY_SUFFIXES = List.of(
+            "股份有限公司", "有限责任公司", "有限公司", "分公司", "公司", "集团",
+            "coltd", "ltd", "limited", "inc", "corp",
+            "信息技术", "网络技术", "网络科技", "信息科技", "电子商务", "科技", "技术", "网络", "软件", "信息", "数据");
+
+    /**
+     * 由 {@link Job} 生成指纹，城市取 {@link Job#getCity()}
+     */
+    public static JobFingerprint of(Job job) {
+        return of(job.getCompanyName(), job.getJobName(), job.getCity(), job.getSalary());
+    }
+
+    /**
+     * @param city   城市或地区文本（如 "上海·浦东新区"、"杭州-滨江"），取第一段；可为空
+     * @param salary 各平台原始薪资文本，由 {@link SalaryParser} 解析，"面议"等无法解析时档位为空
+     * @return 公司或岗位名称为空（如页面读取失败）时返回 null，否则所有读取失败的岗位都会被当成同一个岗位
+     */
+    public static JobFingerprint of(String company, String jobName, String city, String salary) {
+        String normalizedCompany = normalizeCompany(company);
+        String normalizedTitle = normalizeTitle(jobName);
+        if (normalizedCompany.isEmpty() || normalizedTitle.isEmpty()) {
+            return null;
+        }
+        SalaryRange range = SalaryParser.parse(salary);
+        String band = range == null ? "" : String.valueOf(range.monthlyMin() / SALARY_BAND);
+        return new JobFingerprint(normalizedCompany + "|" + normalizedTitle, normalizeCity(city), band);
+    }
+
+    /**
+     * 城市、薪资档位是否相容：任一方未知时视为相同
+     */
+    public boolean matches(String otherCity, String otherBand) {
+        return compatible(city, otherCity) && compatible(band, otherBand);
+    }
+
+    private static boolean compatible(String a, String b) {
+        return a.isEmpty() || b.isEmpty() || a.equals(b);
+    }
+
+    /**
+     * 去掉括号内容（分公司地区等）、空白和标点、开头的地区与结尾的法律形式、行业词
+     */
+    static String normalizeCompany(String company) {
+        String name = lettersOnly(stripBrackets(company));
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String suffix : COMPANY_SUFFIXES) {
+                if (name.endsWith(suffix) && name.length() - suffix.length() >= 2) {
+                    name = name.substring(0, name.length() - suffix.length());
+                    changed = true;
+                }
+            }
+        }
+        for (String region : REGION_PREFIXES) {
+            // 去掉地区后仍要留下足够的字，避免把"上海银行"变成"银行"
+            if (name.startsWith(region) && name.length() - region.length() >= 3) {
+                name = name.substring(region.length());
+                break;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * 去掉括号内容（岗位编号、"急聘"等）、空白和标点，英文转小写
+     */
+    static String normalizeTitle(String jobName) {
+        return lettersOnly(stripBrackets(jobName));
+    }
+
+    /**
+     * 取第一段（如拉勾"/上海 /3-5年"中的"上海"）并去掉"市"
+     */
+    static String normalizeCity(String city) {
+        if (city == null) {
+            return "";
+        }
+        int start = 0;
+        while (start < city.length() && isCitySeparator(city.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < city.length() && !isCitySeparator(city.charAt(end))) {
+            end++;
+        }
+        String value = city.substring(start, end);
+        if (value.endsWith("市")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static boolean isCitySeparator(char c) {
+        return c == '·' || c == '-' || c == ',' || c == '，' || c == '/' || Character.isWhitespace(c);
+    }
+
+    private static String stripBrackets(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        int depth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '(', '（', '[', '【', '<', '《' -> depth++;
+                case ')', '）', ']', '】', '>', '》' -> depth = Math.max(0, depth - 1);
+                default -> {
+                    if (depth == 0) {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 只保留文字和数字，英文转小写，顺带去掉全角空格、"·"、"-"等分隔符
+     */
+    private static String lettersOnly(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,233 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * 多关键词匹配器（Aho–Corasick 自动机）
+ * 关键词集合只编译一次，之后每次判断"文本是否包含任一关键词"只需扫描文本一遍，与关键词数量无关
+ */
+public class KeywordMatcher {
+
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(new char[0][], new int[0][], new int[]{0}, new boolean[]{false}, false);
+
+    /**
+     * 每个节点的出边字符（升序）及对应子节点
+     */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+
+    /**
+     * 失配指针
+     */
+    private final int[] fail;
+
+    /**
+     * 节点本身或其失配链上存在完整关键词
+     */
+    private final boolean[] output;
+
+    private final boolean ignoreCase;
+
+    private KeywordMatcher(char[][] edgeChars, int[][] edgeTargets, int[] fail, boolean[] output, boolean ignoreCase) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * 编译关键词集合，空白关键词会被忽略
+     *
+     * @param patterns   关键词
+     * @param ignoreCase 是否忽略大小写
+     */
+    public static KeywordMatcher compile(Collection<String> patterns, boolean ignoreCase) {
+        if (patterns == null || patterns.isEmpty()) {
+            return EMPTY;
+        }
+        // 1. 构建字典树
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminal.add(false);
+        boolean hasPattern = false;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) {
+                continue;
+            }
+            hasPattern = true;
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = normalize(pattern.charAt(i), ignoreCase);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(c, next);
+                    children.add(new TreeMap<>());
+                    terminal.add(false);
+                }
+                node = next;
+            }
+            terminal.set(node, true);
+        }
+        if (!hasPattern) {
+            return EMPTY;
+        }
+
+        // 2. 压缩为有序数组
+        int size = children.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        boolean[] output = new boolean[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edges = children.get(node);
+            edgeChars[node] = new char[edges.size()];
+            edgeTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[node][i] = edge.getKey();
+                edgeTargets[node][i] = edge.getValue();
+                i++;
+            }
+            output[node] = terminal.get(node);
+        }
+
+        // 3. 广度优先计算失配指针
+        int[] fail = new int[size];
+        KeywordMatcher matcher = new KeywordMatcher(edgeChars, edgeTargets, fail, output, ignoreCase);
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+                int f = fail[node];
+                int target;
+                while ((target = matcher.child(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = target >= 0 ? target : 0;
+                output[child] |= output[fail[child]];
+                queue.add(child);
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * 文本是否包含任一关键词
+     */
+    public boolean containsAny(String text) {
+        if (text == null || edgeChars.length == 0) {
+            return false;
+        }
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i), ignoreCase);
+            int next;
+            while ((next = child(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = next >= 0 ? next : 0;
+            if (output[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否没有任何关键词
+     */
+    public boolean isEmpty() {
+        return edgeChars.length == 0;
+    }
+
+    private int child(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    private static char normalize(char c, boolean ignoreCase) {
+        return ignoreCase ? Character.toUpperCase(c) : c;
+    }
+
+    /**
+     * 对比逐个 contains 与自动机的耗时
+     * 用法：可选参数依次为关键词数量、文本数量、循环次数
+     */
+    public static void main(String[] args) {
+        int patternCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int textCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>(patternCount);
+        for (int i = 0; i < patternCount; i++) {
+            patterns.add(randomText(random, 2 + random.nextInt(6)));
+        }
+        List<String> texts = new ArrayList<>(textCount);
+        for (int i = 0; i < textCount; i++) {
+            texts.add(randomText(random, 10 + random.nextInt(20)));
+        }
+
+        long compileStart = System.nanoTime();
+        KeywordMatcher matcher = compile(patterns, false);
+        long compileNanos = System.nanoTime() - compileStart;
+
+        Map<String, Long> result = new HashMap<>();
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int r = 0; r < rounds; r++) {
+                for (String text : texts) {
+                    if (patterns.stream().anyMatch(text::contains)) {
+                        hits++;
+                    }
+                }
+            }
+            result.put("stream", System.nanoTime() - start);
+            result.put("streamHits", (long) hits);
+
+            start = System.nanoTime();
+            hits = 0;
+            for (int r = 0; r < rounds; r++) {
+                for (String text : texts) {
+                    if (matcher.containsAny(text)) {
+                        hits++;
+                    }
+                }
+            }
+            result.put("matcher", System.nanoTime() - start);
+            result.put("matcherHits", (long) hits);
+        }
+        long checks = (long) rounds * textCount;
+        System.out.printf("关键词 %d 个，文本 %d 条，循环 %d 次，编译耗时 %.2fms%n", patternCount, textCount, rounds, compileNanos / 1e6);
+        System.out.printf("stream.anyMatch: %.2fus/次 (命中 %d)%n", result.get("stream") / 1e3 / checks, result.get("streamHits"));
+        System.out.printf("KeywordMatcher : %.2fus/次 (命中 %d)%n", result.get("matcher") / 1e3 / checks, result.get("matcherHits"));
+        System.out.printf("加速比: %.1fx%n", (double) result.get("stream") / result.get("matcher"));
+    }
+
+    private static String randomText(Random random, int length) {
+        // 在一个较小的汉字区间内取字，保证有一定命中率
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) (0x4E00 + random.nextInt(300)));
+        }
+        return sb.toString();
+    }
+}
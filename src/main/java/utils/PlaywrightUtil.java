@@ -61,6 +61,9 @@ public class PlaywrightUtil {
     // 默认等待时间（毫秒）
     private static final int DEFAULT_WAIT_TIME = 10000;
 
+    // 桌面浏览器UA
+    public static final String DESKTOP_USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/135.0.0.0 Safari/537.36";
+
     /**
      * 初始化Playwright及浏览器实例
      */
@@ -76,8 +79,7 @@ public class PlaywrightUtil {
         // 创建桌面浏览器上下文
         DESKTOP_CONTEXT = BROWSER.newContext(new Browser.NewContextOptions()
                 .setViewportSize(1920, 1080)
-                .setUserAgent(
-                        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/135.0.0.0 Safari/537.36"));
+                .setUserAgent(DESKTOP_USER_AGENT));
 
         // 创建移动设备浏览器上下文
         MOBILE_CONTEXT = BROWSER.newContext(new Browser.NewContextOptions()
@@ -706,6 +708,42 @@ public class PlaywrightUtil {
         return getUrl(defaultDeviceType);
     }
 
+    // 反检测脚本（从SeleniumUtil移植）
+    private static final String STEALTH_SCRIPT = """
+            Object.defineProperty(navigator, 'webdriver', {get: () => undefined});
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Array;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_JSON;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Object;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Promise;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Proxy;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Symbol;
+            delete window.cdc_adoQpoasnfa76pfcZLmcfl_Window;
+            window.navigator.chrome = { runtime: {} };
+            Object.defineProperty(navigator, 'languages', {get: () => ['zh-CN', 'zh']});
+            Object.defineProperty(navigator, 'plugins', {get: () => [1, 2, 3]});
+            Object.defineProperty(navigator, 'injected', {get: () => 123});
+            """;
+
+    /**
+     * 为独立创建的桌面上下文（如并行搜索的浏览器）启用Stealth模式，对上下文内所有页面生效
+     *
+     * @param context 浏览器上下文
+     */
+    public static void initStealth(BrowserContext context) {
+        context.setExtraHTTPHeaders(Map.of(
+                "sec-ch-ua", "\"Google Chrome\";v=\"135\", \"Not-A.Brand\";v=\"8\", \"Chromium\";v=\"135\"",
+                "sec-ch-ua-mobile", "?0",
+                "sec-ch-ua-platform", "\"macOS\"",
+                "accept-language", "zh-CN,zh;q=0.9",
+                "referer", "https://www.zhipin.com/"));
+        context.addInitScript(STEALTH_SCRIPT);
+        try {
+            context.addInitScript(new String(Files.readAllBytes(Paths.get("src/main/resources/stealth.min.js"))));
+        } catch (IOException e) {
+            log.debug("未找到stealth.min.js文件，使用内置反检测脚本");
+        }
+    }
+
     /**
      * 初始化Stealth模式（使浏览器更难被检测为自动化工具）
      * 增强版本，集成SeleniumUtil的反检测功能
@@ -740,20 +778,7 @@ public class PlaywrightUtil {
         }
 
         // 注入反检测脚本（从SeleniumUtil移植）
-        String stealthScript = """
-                Object.defineProperty(navigator, 'webdriver', {get: () => undefined});
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Array;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_JSON;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Object;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Promise;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Proxy;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Symbol;
-                delete window.cdc_adoQpoasnfa76pfcZLmcfl_Window;
-                window.navigator.chrome = { runtime: {} };
-                Object.defineProperty(navigator, 'languages', {get: () => ['zh-CN', 'zh']});
-                Object.defineProperty(navigator, 'plugins', {get: () => [1, 2, 3]});
-                Object.defineProperty(navigator, 'injected', {get: () => 123});
-                """;
+        String stealthScript = STEALTH_SCRIPT;
         
         page.addInitScript(stealthScript);
 
@@ -0,0 +1,166 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 参考数据磁盘缓存（商圈编码、城市编码等很少变化的数据）
+ * 每个 key 对应缓存目录下的一个文件，以文件修改时间作为写入时间：
+ * TTL 内直接返回；过期后先返回旧值，同时在后台刷新（stale-while-revalidate）；
+ * 没有缓存时才同步加载，加载失败不写入缓存。
+ */
+public class RefDataCache {
+    private static final Logger log = LoggerFactory.getLogger(RefDataCache.class);
+
+    private final Path dir;
+    private volatile Duration ttl;
+    private final Map<String, String> memory = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RefDataCache(String dir, Duration ttl) {
+        this.dir = Paths.get(dir);
+        this.ttl = ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * 读取远程参考数据
+     *
+     * @param key    缓存名，同时作为文件名
+     * @param loader 加载最新数据，返回 null 或抛异常视为加载失败
+     * @return 缓存或新加载的数据，都没有时返回 null
+     */
+    public String get(String key, Supplier<String> loader) {
+        String cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Path file = fileOf(key);
+        if (Files.exists(file)) {
+            String value = read(file);
+            if (value != null) {
+                memory.put(key, value);
+                if (ageOf(file).compareTo(ttl) > 0) {
+                    refreshInBackground(key, loader);
+                }
+                return value;
+            }
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * 读取由本地文件派生的数据，源文件比缓存新时重新生成
+     *
+     * @param key    缓存名，同时作为文件名
+     * @param source 源文件
+     * @param loader 由源文件生成缓存内容
+     */
+    public String getDerived(String key, Path source, Supplier<String> loader) {
+        String cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Path file = fileOf(key);
+        try {
+            if (Files.exists(file) && Files.exists(source)
+                    && Files.getLastModifiedTime(file).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+                String value = read(file);
+                if (value != null) {
+                    memory.put(key, value);
+                    return value;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取缓存【{}】时间失败: {}", key, e.getMessage());
+        }
+        return load(key, loader);
+    }
+
+    private String load(String key, Supplier<String> loader) {
+        String value;
+        try {
+            value = loader.get();
+        } catch (Exception e) {
+            log.error("加载参考数据【{}】失败: {}", key, e.getMessage());
+            return null;
+        }
+        if (value != null) {
+            memory.put(key, value);
+            write(fileOf(key), value);
+        }
+        return value;
+    }
+
+    private void refreshInBackground(String key, Supplier<String> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                String value = loader.get();
+                if (value != null) {
+                    write(fileOf(key), value);
+                    memory.put(key, value);
+                    log.info("参考数据【{}】已在后台刷新", key);
+                }
+            } catch (Exception e) {
+                log.warn("后台刷新参考数据【{}】失败，继续使用旧数据: {}", key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        }, "ref-cache-" + key);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Path fileOf(String key) {
+        return dir.resolve(key + ".json");
+    }
+
+    private Duration ageOf(Path file) {
+        try {
+            return Duration.ofMillis(System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            return Duration.ofMillis(Long.MAX_VALUE);
+        }
+    }
+
+    private String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("读取缓存文件【{}】失败: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免中断时留下半个文件
+     */
+    private void write(Path file, String value) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.writeString(tmp, value, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入缓存文件【{}】失败: {}", file, e.getMessage());
+        }
+    }
+}
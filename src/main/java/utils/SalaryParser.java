@@ -0,0 +1,218 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 通用薪资解析，一次扫描完成，不使用正则、不产生中间字符串
+ * 支持的格式：
+ * Boss "15-25K·13薪"、"150-200元/天"（含字体反爬数字）；
+ * 智联 "15001,25000"、"1.5万-2.5万"、"8千-1.2万"；
+ * 猎聘 "15$30"、"15-30k·14薪"；
+ * 前程无忧 "1-1.5万"、"10-20万/年"、"3-4.5千"；
+ * 拉勾 "15k-25k"
+ */
+public class SalaryParser {
+
+    /**
+     * Boss 字体反爬使用的私有区字符起点，依次对应 0-9
+     */
+    private static final char OBFUSCATED_ZERO = '\uE030';
+
+    /**
+     * 解析薪资文本
+     *
+     * @return 薪资区间，无法解析（如"面议"）时返回 null
+     */
+    public static SalaryRange parse(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        // 金额以"分"为单位的定点数，避免浮点
+        long first = -1;
+        long second = -1;
+        long firstMultiplier = 0;
+        long secondMultiplier = 0;
+        int months = 12;
+        boolean dollar = false;
+        SalaryRange.Unit unit = SalaryRange.Unit.MONTH;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = decodeDigit(text.charAt(i));
+            if (c >= '0' && c <= '9') {
+                long value = 0;
+                int decimals = -1;
+                while (i < length) {
+                    c = decodeDigit(text.charAt(i));
+                    if (c >= '0' && c <= '9') {
+                        if (decimals < 2) {
+                            value = value * 10 + (c - '0');
+                            if (decimals >= 0) {
+                                decimals++;
+                            }
+                        }
+                        i++;
+                    } else if (c == '.' && decimals < 0) {
+                        decimals = 0;
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                // 统一为两位小数
+                for (int d = Math.max(decimals, 0); d < 2; d++) {
+                    value *= 10;
+                }
+                char suffix = i < length ? text.charAt(i) : 0;
+                if (suffix == '薪') {
+                    months = (int) (value / 100);
+                    i++;
+                    continue;
+                }
+                long multiplier = 0;
+                if (suffix == 'k' || suffix == 'K' || suffix == '千') {
+                    multiplier = 1000;
+                    i++;
+                } else if (suffix == 'w' || suffix == 'W' || suffix == '万') {
+                    multiplier = 10000;
+                    i++;
+                } else if (suffix == '元') {
+                    multiplier = 1;
+                }
+                if (first < 0) {
+                    first = value;
+                    firstMultiplier = multiplier;
+                } else if (second < 0) {
+                    second = value;
+                    secondMultiplier = multiplier;
+                }
+                continue;
+            }
+            switch (c) {
+                case '$' -> dollar = true;
+                case '时' -> unit = SalaryRange.Unit.HOUR;
+                case '天', '日' -> unit = SalaryRange.Unit.DAY;
+                case '年' -> unit = SalaryRange.Unit.YEAR;
+                case '元' -> {
+                    if (firstMultiplier == 0) {
+                        firstMultiplier = 1;
+                    }
+                    if (second >= 0 && secondMultiplier == 0) {
+                        secondMultiplier = 1;
+                    }
+                }
+                default -> {
+                }
+            }
+            i++;
+        }
+        if (first < 0) {
+            return null;
+        }
+        if (second < 0) {
+            second = first;
+            secondMultiplier = firstMultiplier;
+        }
+        // "15-25K"、"1-1.5万"：前一个数沿用后一个数的单位
+        if (firstMultiplier == 0) {
+            firstMultiplier = secondMultiplier;
+        }
+        if (secondMultiplier == 0) {
+            secondMultiplier = firstMultiplier;
+        }
+        // 都没有单位："15$30" 与较小的数按 K 计算，"15001,25000" 这类按元计算
+        if (firstMultiplier == 0) {
+            firstMultiplier = secondMultiplier = (!dollar && second >= 100_000) ? 1 : 1000;
+        }
+        int min = (int) (first * firstMultiplier / 100);
+        int max = (int) (second * secondMultiplier / 100);
+        if (min > max) {
+            int tmp = min;
+            min = max;
+            max = tmp;
+        }
+        return new SalaryRange(min, max, unit, months);
+    }
+
+    /**
+     * 还原 Boss 字体反爬的数字，其他字符原样返回
+     */
+    public static char decodeDigit(char c) {
+        return c >= OBFUSCATED_ZERO && c <= OBFUSCATED_ZERO + 9 ? (char) ('0' + (c - OBFUSCATED_ZERO)) : c;
+    }
+
+    /**
+     * 对比旧的 Boss 薪资处理链路（HashMap 解码 + 正则清洗 + Integer[] 装箱）与单次扫描解析的耗时
+     * 用法：可选参数为循环次数
+     */
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        String[] samples = {"15-25K·13薪", "20-40K", "150-200元/天", "8-13K·14薪", "\uE031\uE035-\uE032\uE035K", "30-60K·16薪"};
+        for (String sample : samples) {
+            System.out.printf("%-16s -> %s%n", sample, parse(sample));
+        }
+        for (String sample : new String[]{"15001,25000", "15$30", "1.5万-2.5万", "8千-1.2万", "10-20万/年", "15k-25k", "面议"}) {
+            System.out.printf("%-16s -> %s%n", sample, parse(sample));
+        }
+
+        long sink = 0;
+        long legacyNanos = 0;
+        long parserNanos = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                Integer[] range = legacyParse(samples[r % samples.length]);
+                sink += range == null ? 0 : range[0];
+            }
+            legacyNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                SalaryRange range = parse(samples[r % samples.length]);
+                sink += range == null ? 0 : range.min();
+            }
+            parserNanos = System.nanoTime() - start;
+        }
+        System.out.printf("旧链路: %.1fns/次, SalaryParser: %.1fns/次, 加速比: %.1fx (sink=%d)%n",
+                (double) legacyNanos / rounds, (double) parserNanos / rounds, (double) legacyNanos / parserNanos, sink);
+    }
+
+    /**
+     * 旧链路的等价实现，仅用于基准对比
+     */
+    private static Integer[] legacyParse(String text) {
+        Map<Character, Character> fontMap = new HashMap<>();
+        for (int d = 0; d < 10; d++) {
+            fontMap.put((char) (OBFUSCATED_ZERO + d), (char) ('0' + d));
+        }
+        StringBuilder decoded = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            decoded.append(fontMap.getOrDefault(c, c));
+        }
+        String salary = decoded.toString();
+        if (salary.contains("薪")) {
+            salary = salary.replaceAll("·\\d+薪", "");
+        }
+        if (!(salary.contains("K") || salary.contains("k") || salary.contains("元/天"))) {
+            return null;
+        }
+        salary = salary.replace("K", "").replace("k", "");
+        int dotIndex = salary.indexOf('·');
+        if (dotIndex != -1) {
+            salary = salary.substring(0, dotIndex);
+        }
+        if (salary.contains("元/天")) {
+            salary = salary.replaceAll("元/天", "");
+        }
+        try {
+            return Arrays.stream(salary.split("-")).map(s -> s.replaceAll("[^0-9]", ""))
+                    .map(Integer::parseInt)
+                    .toArray(Integer[]::new);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package utils;
+
+/**
+ * 薪资区间，金额单位为元
+ *
+ * @param min    最低薪资
+ * @param max    最高薪资
+ * @param unit   计薪周期
+ * @param months 年薪月数（如 13薪、14薪），未注明时为 12
+ */
+public record SalaryRange(int min, int max, Unit unit, int months) {
+
+    /**
+     * 月均工作日，日薪/时薪折算月薪时使用
+     */
+    public static final double WORK_DAYS_PER_MONTH = 21.75;
+
+    public enum Unit {
+        HOUR, DAY, MONTH, YEAR
+    }
+
+    /**
+     * 折算为月薪下限（元）
+     */
+    public int monthlyMin() {
+        return toMonthly(min);
+    }
+
+    /**
+     * 折算为月薪上限（元）
+     */
+    public int monthlyMax() {
+        return toMonthly(max);
+    }
+
+    private int toMonthly(int value) {
+        return switch (unit) {
+            case HOUR -> (int) Math.round(value * 8 * WORK_DAYS_PER_MONTH);
+            case DAY -> (int) Math.round(value * WORK_DAYS_PER_MONTH);
+            case MONTH -> value;
+            case YEAR -> value / 12;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d-%d元/%s·%d薪", min, max, unit, months);
+    }
+}
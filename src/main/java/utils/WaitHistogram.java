@@ -0,0 +1,84 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按步骤统计条件等待的实际耗时分布
+ * 每个步骤记录次数、超时次数、平均/最大耗时以及按固定分桶的直方图，运行结束时统一输出；可多线程共用
+ */
+public class WaitHistogram {
+    private static final Logger log = LoggerFactory.getLogger(WaitHistogram.class);
+
+    /**
+     * 分桶上界（毫秒），最后一个桶收纳超过最大上界的记录
+     */
+    private static final long[] BOUNDS = {100, 250, 500, 1000, 2000, 5000, 10000};
+
+    private static class Stats {
+        final int[] buckets = new int[BOUNDS.length + 1];
+        int count;
+        int timeouts;
+        long totalMillis;
+        long maxMillis;
+    }
+
+    private final String name;
+    private final Map<String, Stats> steps = new LinkedHashMap<>();
+
+    public WaitHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 记录一次等待
+     *
+     * @param step     步骤名称
+     * @param millis   实际等待时间
+     * @param timedOut 是否因超时结束
+     */
+    public synchronized void record(String step, long millis, boolean timedOut) {
+        Stats stats = steps.computeIfAbsent(step, k -> new Stats());
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        stats.buckets[bucket]++;
+        stats.count++;
+        stats.totalMillis += millis;
+        stats.maxMillis = Math.max(stats.maxMillis, millis);
+        if (timedOut) {
+            stats.timeouts++;
+        }
+    }
+
+    public void record(String step, long millis) {
+        record(step, millis, false);
+    }
+
+    /**
+     * 输出每个步骤的等待分布
+     */
+    public synchronized void logSummary() {
+        if (steps.isEmpty()) {
+            return;
+        }
+        log.info("【{}】等待耗时分布（毫秒）：", name);
+        for (Map.Entry<String, Stats> entry : steps.entrySet()) {
+            Stats stats = entry.getValue();
+            StringBuilder histogram = new StringBuilder();
+            for (int i = 0; i < stats.buckets.length; i++) {
+                if (stats.buckets[i] == 0) {
+                    continue;
+                }
+                histogram.append(i < BOUNDS.length ? "≤" + BOUNDS[i] : ">" + BOUNDS[BOUNDS.length - 1])
+                        .append(':').append(stats.buckets[i]).append(' ');
+            }
+            log.info("{} | 次数:{} 超时:{} 平均:{} 最大:{} | {}", entry.getKey(), stats.count, stats.timeouts,
+                    stats.totalMillis / stats.count, stats.maxMillis, histogram.toString().trim());
+        }
+    }
+}
@@ -5,21 +5,18 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import utils.JSONUtils;
+import utils.AppliedJobs;
+import utils.BlacklistStore;
 import utils.Job;
+import utils.JobDedup;
+import utils.JobFingerprint;
 import utils.JobUtils;
+import utils.Platform;
 import utils.SeleniumUtil;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -44,50 +41,56 @@ public class ZhiLian {
     static int maxPage = 500;
     static ZhilianConfig config = ZhilianConfig.init();
     static List<Job> resultList = new ArrayList<>();
+    static AppliedJobs appliedJobs;
+    static JobDedup jobDedup;
     static Date startDate;
 
     static Set<String> blackCompanies;
     static Set<String> blackRecruiters;
     static Set<String> blackJobs;
     static String dataPath = "src/main/java/boss/data.json";
+    /**
+     * 与 Boss 共用的黑名单，两个进程同时运行时也能看到对方新增的公司
+     */
+    static BlacklistStore blacklist;
 
-    static {
+    public static void main(String[] args) {
+        appliedJobs = AppliedJobs.open(Platform.ZHILIAN);
+        blacklist = BlacklistStore.open(dataPath, "blackCompanies", "blackRecruiters", "blackJobs");
+        blackCompanies = blacklist.get("blackCompanies");
+        blackRecruiters = blacklist.get("blackRecruiters");
+        blackJobs = blacklist.get("blackJobs");
         try {
-            // 检查dataPath文件是否存在，不存在则创建
-            File dataFile = new File(dataPath);
-            if (!dataFile.exists()) {
-                // 确保父目录存在
-                if (!dataFile.getParentFile().exists()) {
-                    dataFile.getParentFile().mkdirs();
-                }
-                // 创建文件并写入初始JSON结构
-                Map<String, Set<String>> initialData = new HashMap<>();
-                initialData.put("blackCompanies", new HashSet<>());
-                initialData.put("blackRecruiters", new HashSet<>());
-                initialData.put("blackJobs", new HashSet<>());
-                initialData.put("cityArea", new HashSet<>());
-                String initialJson = JSONUtils.customJsonFormat(initialData);
-                Files.write(Paths.get(dataPath), initialJson.getBytes());
-                log.info("创建数据文件: {}", dataPath);
+            jobDedup = JobDedup.open(Platform.ZHILIAN);
+            try {
+                SeleniumUtil.initDriver();
+                startDate = new Date();
+                login();
+                config.getKeywords().forEach(keyword -> {
+                    if (isLimit) {
+                        return;
+                    }
+                    CHROME_DRIVER.get(getSearchUrl(keyword, 1));
+                    submitJobs(keyword);
+
+                });
+            } finally {
+                // 中途抛出异常也要输出统计并关闭写入；需在 printResult 停止日志之前执行
+                closeJobIndexes();
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            log.info(resultList.isEmpty() ? "未投递新的岗位..." : "新投递公司如下:\n{}", resultList.stream().map(Object::toString).collect(Collectors.joining("\n")));
+            printResult();
+        } finally {
+            // 中途抛出异常时也要释放黑名单，定时任务下次运行才能重新打开
+            blacklist.close();
         }
     }
-    public static void main(String[] args) {
-        SeleniumUtil.initDriver();
-        startDate = new Date();
-        login();
-        config.getKeywords().forEach(keyword -> {
-            if (isLimit) {
-                return;
-            }
-            CHROME_DRIVER.get(getSearchUrl(keyword, 1));
-            submitJobs(keyword);
 
-        });
-        log.info(resultList.isEmpty() ? "未投递新的岗位..." : "新投递公司如下:\n{}", resultList.stream().map(Object::toString).collect(Collectors.joining("\n")));
-        printResult();
+    private static void closeJobIndexes() {
+        appliedJobs.logSummary();
+        appliedJobs.close();
+        jobDedup.logSummary();
+        jobDedup.close();
     }
 
     private static void printResult() {
@@ -158,6 +161,20 @@ public class ZhiLian {
                 try {
                     // 解析岗位信息
                     Job job = parseJobInfo(element);
+                    if (blackCompanies.contains(job.getCompanyName())) {
+                        log.info("黑名单公司，跳过：【{}】公司【{}】岗位", job.getCompanyName(), job.getJobName());
+                        continue;
+                    }
+                    // 历次运行已投递过的岗位不再点击
+                    String jobId = AppliedJobs.jobId(job.getHref(), job.getCompanyName() + "|" + job.getJobName());
+                    if (appliedJobs.contains(jobId)) {
+                        log.info("已投递过，跳过：【{}】公司【{}】岗位", job.getCompanyName(), job.getJobName());
+                        continue;
+                    }
+                    JobFingerprint fingerprint = JobFingerprint.of(job);
+                    if (jobDedup.isDuplicate(fingerprint)) {
+                        continue;
+                    }
                     SeleniumUtil.sleep(2);
                     // 点击投递按钮
                     WebElement applyBtn = element.findElement(By.xpath(".//button[@class='collect-and-apply__btn']"));
@@ -181,6 +198,8 @@ public class ZhiLian {
                     
                     // 记录投递结果
                     resultList.add(job);
+                    appliedJobs.record(jobId, AppliedJobs.Outcome.APPLIED);
+                    jobDedup.record(fingerprint);
                     log.info("投递【{}】公司【{}】岗位，薪资【{}】，地区【{}】", 
                             job.getCompanyName(), job.getJobName(), job.getSalary(), job.getJobInfo());
                     
@@ -274,6 +293,7 @@ public class ZhiLian {
         try {
             WebElement jobNameElement = element.findElement(By.xpath(".//a[@class='jobinfo__name']"));
             job.setJobName(jobNameElement.getText().trim());
+            job.setHref(jobNameElement.getAttribute("href"));
         } catch (Exception e) {
             log.warn("解析岗位名称失败");
             job.setJobName("未知岗位");
@@ -310,6 +330,7 @@ public class ZhiLian {
                 education = otherInfos.get(2).getText().trim();
             }
             
+            job.setCity(location);
             job.setJobInfo(location + (experience.isEmpty() ? "" : "·" + experience) + (education.isEmpty() ? "" : "·" + education));
         } catch (Exception e) {
             log.warn("解析工作信息失败: {}", e.getMessage());